@@ -1,10 +0,0 @@
-package basics;
-
-/**
- * Helper-enum to implement recursion iterativelly.
- */
-public enum RecursiveAction {
-    WENT_DEEPER,
-    WENT_BACK,
-    WENT_NEXT
-}
@@ -0,0 +1,19 @@
+package basics.diagram;
+
+/**
+ * Policy, that determines the value of a time bucket when a diagram is downsampled.
+ */
+public enum Compaction {
+    /**
+     * Lowest value within the bucket. The null value is treated as no data.
+     */
+    MIN,
+    /**
+     * Highest value within the bucket. The null value is treated as no data.
+     */
+    MAX,
+    /**
+     * Value at the start of the bucket.
+     */
+    FIRST
+}
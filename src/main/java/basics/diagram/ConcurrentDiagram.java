@@ -0,0 +1,182 @@
+package basics.diagram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe diagram with a long time axis.
+ * The time axis is split into stripes of a fixed width. Every stripe is a Diagram with its own read-write lock, so
+ * inserts into disjoint stripes don't block each other. An insert locks all stripes it touches in ascending order
+ * before it changes anything, so readers never see a partially applied insert.
+ * @param <Y> Data, has to be comparable.
+ */
+public class ConcurrentDiagram<Y extends Comparable> {
+    private final ConcurrentSkipListMap<Long, Stripe<Y>> stripes = new ConcurrentSkipListMap<>();
+    private final Y defaultValue;
+    private final long stripeWidth;
+
+    /**
+     * A part of the time axis with its own lock.
+     * @param <Y> Data, has to be comparable.
+     */
+    private static class Stripe<Y extends Comparable> {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Diagram<Long, Y> diagram;
+        private final long start;
+        private final long end;
+
+        private Stripe(Y defaultValue, long start, long end) {
+            this.diagram = new Diagram<>(defaultValue);
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Constructor for ConcurrentDiagram
+     * @param defaultValue Default value for points with no data.
+     * @param stripeWidth Width of the time ranges, that can be written in parallel.
+     */
+    public ConcurrentDiagram(Y defaultValue, long stripeWidth) {
+        if (stripeWidth <= 0) {
+            throw new IllegalArgumentException("'stripeWidth' has to be greater than 0.");
+        }
+        this.defaultValue = defaultValue;
+        this.stripeWidth = stripeWidth;
+    }
+
+    /**
+     * Inserts a new value into the diagram. Lower values will be kept, higher values will be replaced.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     */
+    public void insertMin(long from, long to, Y newValue) {
+        insert(from, to, newValue, false);
+    }
+
+    /**
+     * Inserts a new value into the diagram. Higher values will be kept, lower values will be replaced.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     */
+    public void insertMax(long from, long to, Y newValue) {
+        insert(from, to, newValue, true);
+    }
+
+    /**
+     * Inserts a new value into every stripe between 'from' and 'to'.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     * @param max If higher values (true) or lower values (false) shall be kept.
+     */
+    private void insert(long from, long to, Y newValue, boolean max) {
+        PrimitiveDiagram.checkRange(from, to);
+
+        List<Stripe<Y>> affected = new ArrayList<>();
+        for (long index = Math.floorDiv(from, stripeWidth); index <= Math.floorDiv(to - 1, stripeWidth); index++) {
+            affected.add(getOrCreateStripe(index));
+        }
+        for (Stripe<Y> stripe : affected) {
+            stripe.lock.writeLock().lock();
+        }
+        try {
+            for (Stripe<Y> stripe : affected) {
+                long start = Math.max(from, stripe.start);
+                long end = Math.min(to, stripe.end);
+                if (max) {
+                    stripe.diagram.insertMax(start, end, newValue);
+                }
+                else {
+                    stripe.diagram.insertMin(start, end, newValue);
+                }
+            }
+        }
+        finally {
+            for (Stripe<Y> stripe : affected) {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the value at x.
+     * @param x Point in time, at which the value shall be returned.
+     * @return Value Y or default value.
+     */
+    public Y at(long x) {
+        Stripe<Y> stripe = stripes.get(Math.floorDiv(x, stripeWidth));
+        if (stripe == null) {
+            return defaultValue;
+        }
+        stripe.lock.readLock().lock();
+        try {
+            return stripe.diagram.at(x);
+        }
+        finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a consistent copy of the whole diagram. All stripes are read locked while they are copied.
+     * @return Copy as Diagram.
+     */
+    public Diagram<Long, Y> toDiagram() {
+        List<Stripe<Y>> locked = new ArrayList<>();
+        TreeMap<Long, Y> combined = new TreeMap<>();
+        try {
+            for (Stripe<Y> stripe : stripes.values()) {
+                stripe.lock.readLock().lock();
+                locked.add(stripe);
+            }
+            // A breakpoint at the end of a stripe is overwritten by the start of the following stripe.
+            for (Stripe<Y> stripe : locked) {
+                combined.putAll(stripe.diagram.getData());
+            }
+        }
+        finally {
+            for (Stripe<Y> stripe : locked) {
+                stripe.lock.readLock().unlock();
+            }
+        }
+
+        TreeMap<Long, Y> data = new TreeMap<>();
+        Y previous = null;
+        for (Map.Entry<Long, Y> entry : combined.entrySet()) {
+            if (data.isEmpty() || !Objects.equals(previous, entry.getValue())) {
+                data.put(entry.getKey(), entry.getValue());
+                previous = entry.getValue();
+            }
+        }
+        Diagram<Long, Y> diagram = new Diagram<>(defaultValue);
+        diagram.setData(data);
+        return diagram;
+    }
+
+    /**
+     * Returns the stripe with an index and creates it, if it doesn't exist yet.
+     * @param index Index of the stripe.
+     * @return Stripe
+     */
+    private Stripe<Y> getOrCreateStripe(long index) {
+        Stripe<Y> stripe = stripes.get(index);
+        if (stripe == null) {
+            long start = index * stripeWidth;
+            long end = start > Long.MAX_VALUE - stripeWidth ? Long.MAX_VALUE : start + stripeWidth;
+            Stripe<Y> created = new Stripe<>(defaultValue, start, end);
+            stripe = stripes.putIfAbsent(index, created);
+            if (stripe == null) {
+                stripe = created;
+            }
+        }
+        return stripe;
+    }
+}
@@ -1,7 +1,9 @@
 package basics.diagram;
 
+import org.apache.flink.api.java.tuple.Tuple3;
+
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BinaryOperator;
 
 /**
  * Diagram, that stores data with x as the time axis and y as the data axis.
@@ -11,6 +13,10 @@ import java.util.stream.Collectors;
 public class Diagram<X extends Number & Comparable, Y extends Comparable> {
     private TreeMap<X, Y> data;
     private final Y defaultValue;
+    private final boolean frozen;
+    private boolean shared = false;
+    private Diagram<X, Y> lastSnapshot = null;
+    private DiagramAggregates<X, Y> aggregates = null;
 
     /**
      * Constructor for Diagram
@@ -19,6 +25,18 @@ public class Diagram<X extends Number & Comparable, Y extends Comparable> {
     public Diagram(Y defaultValue) {
         data = new TreeMap<X, Y>();
         this.defaultValue = defaultValue;
+        this.frozen = false;
+    }
+
+    /**
+     * Constructor for snapshots.
+     * @param defaultValue Default value for points with no data.
+     * @param data Data, that is shared with the original diagram.
+     */
+    private Diagram(Y defaultValue, TreeMap<X, Y> data) {
+        this.data = data;
+        this.defaultValue = defaultValue;
+        this.frozen = true;
     }
 
     /**
@@ -26,7 +44,52 @@ public class Diagram<X extends Number & Comparable, Y extends Comparable> {
      * @param data The data as a TreeMap
      */
     public void setData(TreeMap<X, Y> data) {
+        if (frozen) {
+            throw new UnsupportedOperationException("A snapshot can't be modified.");
+        }
         this.data = data;
+        this.shared = false;
+        this.aggregates = null;
+    }
+
+    /**
+     * Returns an immutable snapshot of the diagram in O(1). The snapshot shares its data with this diagram until the
+     * next modification of this diagram, which copies the data once (copy-on-write).
+     * The snapshot has to be taken by the thread, that modifies the diagram. Afterwards it can be read by any thread.
+     * The map returned by getData() of a snapshot must not be modified.
+     * @return Snapshot as Diagram.
+     */
+    public Diagram<X, Y> snapshot() {
+        if (frozen) {
+            return this;
+        }
+        if (!shared) {
+            lastSnapshot = new Diagram<>(defaultValue, data);
+            shared = true;
+        }
+        return lastSnapshot;
+    }
+
+    /**
+     * Checks if the diagram is an immutable snapshot.
+     * @return true if it is a snapshot, otherwise false.
+     */
+    public boolean isSnapshot() {
+        return frozen;
+    }
+
+    /**
+     * Prepares the data for a modification. Copies the data, if it is shared with a snapshot.
+     */
+    private void beforeWrite() {
+        if (frozen) {
+            throw new UnsupportedOperationException("A snapshot can't be modified.");
+        }
+        if (shared) {
+            data = new TreeMap<>(data);
+            shared = false;
+        }
+        aggregates = null;
     }
 
     /**
@@ -36,6 +99,27 @@ public class Diagram<X extends Number & Comparable, Y extends Comparable> {
      * @param newValue The new value to insert.
      */
     public void insertMin(X from, X to, Y newValue) {
+        insert(from, to, newValue, 1);
+    }
+
+    /**
+     * Inserts a new value into the diagram. Higher values will be kept, lower values will be replaced.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     */
+    public void insertMax(X from, X to, Y newValue) {
+        insert(from, to, newValue, -1);
+    }
+
+    /**
+     * Inserts a new value into the diagram. Only the breakpoints between 'from' and 'to' are visited.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     * @param order 1 to keep lower values, -1 to keep higher values.
+     */
+    private void insert(X from, X to, Y newValue, int order) {
         if (from.equals(to)) {
             throw new IllegalArgumentException("'from' and 'to' can't have the same value.");
         }
@@ -43,160 +127,192 @@ public class Diagram<X extends Number & Comparable, Y extends Comparable> {
             throw new IllegalArgumentException("'from' can't be greater than 'to'.");
         }
 
-        if (data.size() <= 0 || data.lastKey().compareTo(from) < 0 || data.firstKey().compareTo(to) > 0) {
-            data.put(from, newValue);
-            data.put(to, defaultValue);
-        } else {
-            X floorKeyFrom = data.floorKey(from);
-            X floorKeyTo = data.floorKey(to);
-            List<X> keys = data.keySet().stream().sorted().collect(Collectors.toList());
-            Y lastValue = null;
-
-            /*
-                Neuer Datensatz unterbricht einen alten Datensatz:
-                Alt:    o--------
-                Neu:      o---
-             */
-            if (floorKeyFrom != null && floorKeyTo != null && floorKeyFrom.equals(floorKeyTo)) {
-                Y oldValue = data.get(floorKeyFrom);
-                if (oldValue == null || newValue.compareTo(oldValue) < 0) {
-                    data.put(from, newValue);
-                    data.put(to, oldValue);
-                }
+        beforeWrite();
+        split(to, true);
+        split(from, false);
+        for (Map.Entry<X, Y> entry : data.subMap(from, true, to, false).entrySet()) {
+            Y value = entry.getValue();
+            if (value == null || order * newValue.compareTo(value) < 0) {
+                entry.setValue(newValue);
             }
-            else {
-                if (floorKeyFrom == null) {
-                    data.put(from, newValue);
-                    lastValue = newValue;
-                }
-                for (X key : keys) {
-                    if (key.equals(floorKeyFrom)) { // Anfang
-                        Y value = data.get(key);
-                        if (value == null || newValue.compareTo(value) < 0) {
-                            data.put(from, newValue);
-                            lastValue = newValue;
-                        }
-                        else {
-                            lastValue = value;
-                        }
-                    }
-                    else if (key.equals(floorKeyTo)) { // Ende
-                        Y value = data.get(key);
-                        if (value == null || newValue.compareTo(value) < 0) {
-                            if (lastValue == newValue) {
-                                data.remove(key);
-                            }
-                            else {
-                                data.put(key, newValue);
-                            }
-                            data.put(to, value);
-                        }
-                        else if (value == null || newValue.compareTo(value) == 0) {
-                            data.remove(key);
-                        }
-                    }
-                    else if (key.compareTo(from) > 0 && key.compareTo(to) < 0) { // Mitte
-                        Y value = data.get(key);
-                        if (value == null || newValue.compareTo(value) <= 0) {
-                            if (lastValue == newValue) {
-                                data.remove(key);
-                            }
-                            else {
-                                data.put(key, newValue);
-                            }
-                            lastValue = newValue;
-                        }
-                        else {
-                            lastValue = value;
-                        }
-                    }
-                }
+        }
+        compact(from, to);
+    }
+
+    /**
+     * Builds a diagram from a batch of intervals. The result is the same as inserting all intervals with insertMin,
+     * but it is determined with a single sort and sweep.
+     * @param intervals Intervals as (from, to, value).
+     * @param defaultValue Default value for points with no data.
+     * @return Lower envelope of the intervals as Diagram.
+     */
+    public static <X extends Number & Comparable, Y extends Comparable> Diagram<X, Y> buildMin(Collection<Tuple3<X, X, Y>> intervals, Y defaultValue) {
+        return build(intervals, defaultValue, 1);
+    }
+
+    /**
+     * Builds a diagram from a batch of intervals. The result is the same as inserting all intervals with insertMax,
+     * but it is determined with a single sort and sweep.
+     * @param intervals Intervals as (from, to, value).
+     * @param defaultValue Default value for points with no data.
+     * @return Upper envelope of the intervals as Diagram.
+     */
+    public static <X extends Number & Comparable, Y extends Comparable> Diagram<X, Y> buildMax(Collection<Tuple3<X, X, Y>> intervals, Y defaultValue) {
+        return build(intervals, defaultValue, -1);
+    }
+
+    /**
+     * Builds the lower or upper envelope of a batch of intervals.
+     * @param intervals Intervals as (from, to, value).
+     * @param defaultValue Default value for points with no data.
+     * @param order 1 to keep lower values, -1 to keep higher values.
+     * @return Envelope as Diagram.
+     */
+    private static <X extends Number & Comparable, Y extends Comparable> Diagram<X, Y> build(Collection<Tuple3<X, X, Y>> intervals, Y defaultValue, int order) {
+        Diagram<X, Y> diagram = new Diagram<>(defaultValue);
+        List<Tuple3<X, X, Y>> list = new ArrayList<>(intervals);
+        if (list.isEmpty()) {
+            return diagram;
+        }
+
+        List<X> coordinates = new ArrayList<>(list.size() * 2);
+        for (Tuple3<X, X, Y> interval : list) {
+            if (interval.f0.equals(interval.f1)) {
+                throw new IllegalArgumentException("'from' and 'to' can't have the same value.");
+            }
+            if (interval.f0.compareTo(interval.f1) > 0) {
+                throw new IllegalArgumentException("'from' can't be greater than 'to'.");
+            }
+            coordinates.add(interval.f0);
+            coordinates.add(interval.f1);
+        }
+        Comparator<X> comparator = (a, b) -> a.compareTo(b);
+        coordinates.sort(comparator);
+        int unique = 1;
+        for (int i = 1; i < coordinates.size(); i++) {
+            if (coordinates.get(i).compareTo(coordinates.get(unique - 1)) != 0) {
+                coordinates.set(unique++, coordinates.get(i));
             }
         }
+        coordinates = coordinates.subList(0, unique);
+
+        int[] from = new int[list.size()];
+        int[] to = new int[list.size()];
+        List<Integer> sorted = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            from[i] = Collections.binarySearch(coordinates, list.get(i).f0, comparator);
+            to[i] = Collections.binarySearch(coordinates, list.get(i).f1, comparator);
+            sorted.add(i);
+        }
+        // The sort is stable, so intervals with equal values keep their insertion order.
+        sorted.sort((a, b) -> order * list.get(a).f2.compareTo(list.get(b).f2));
+        int[] ranking = new int[sorted.size()];
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = sorted.get(i);
+        }
+
+        int[] owner = Envelope.paint(from, to, ranking, ranking.length, unique - 1);
+        TreeMap<X, Y> data = new TreeMap<>();
+        Y previous = null;
+        for (int segment = 0; segment < unique; segment++) {
+            Y value = segment < owner.length && owner[segment] >= 0 ? list.get(owner[segment]).f2 : defaultValue;
+            if (data.isEmpty() || !Objects.equals(previous, value)) {
+                data.put(coordinates.get(segment), value);
+                previous = value;
+            }
+        }
+        diagram.setData(data);
+        return diagram;
     }
 
     /**
-     * Inserts a new value into the diagram. Higher values will be kept, lower values will be replaced.
-     * @param from Starting time, from which the value will be valid.
-     * @param to End time, to which the value will be valued.
-     * @param newValue The new value to insert.
+     * Combines two diagrams point by point with a single merge walk over their breakpoints.
+     * Points before the first breakpoint of a diagram take its default value.
+     * @param a First diagram.
+     * @param b Second diagram.
+     * @param combiner Function to combine the values of both diagrams, e.g. minimum() or maximum().
+     * @return New diagram with the combined values.
      */
-    public void insertMax(X from, X to, Y newValue) {
-        if (from.equals(to)) {
-            throw new IllegalArgumentException("'from' and 'to' can't have the same value.");
+    public static <X extends Number & Comparable, Y extends Comparable> Diagram<X, Y> merge(Diagram<X, Y> a, Diagram<X, Y> b, BinaryOperator<Y> combiner) {
+        Diagram<X, Y> diagram = new Diagram<>(combiner.apply(a.defaultValue, b.defaultValue));
+        Iterator<Map.Entry<X, Y>> iteratorA = a.data.entrySet().iterator();
+        Iterator<Map.Entry<X, Y>> iteratorB = b.data.entrySet().iterator();
+        Map.Entry<X, Y> nextA = iteratorA.hasNext() ? iteratorA.next() : null;
+        Map.Entry<X, Y> nextB = iteratorB.hasNext() ? iteratorB.next() : null;
+        Y valueA = a.defaultValue;
+        Y valueB = b.defaultValue;
+        Y previous = null;
+
+        while (nextA != null || nextB != null) {
+            int comparison = nextA == null ? 1 : (nextB == null ? -1 : nextA.getKey().compareTo(nextB.getKey()));
+            X key = comparison <= 0 ? nextA.getKey() : nextB.getKey();
+            if (comparison <= 0) {
+                valueA = nextA.getValue();
+                nextA = iteratorA.hasNext() ? iteratorA.next() : null;
+            }
+            if (comparison >= 0) {
+                valueB = nextB.getValue();
+                nextB = iteratorB.hasNext() ? iteratorB.next() : null;
+            }
+            Y value = combiner.apply(valueA, valueB);
+            if (diagram.data.isEmpty() || !Objects.equals(previous, value)) {
+                diagram.data.put(key, value);
+                previous = value;
+            }
         }
-        if (from.compareTo(to) > 0) {
-            throw new IllegalArgumentException("'from' can't be greater than 'to'.");
+        return diagram;
+    }
+
+    /**
+     * Returns a combiner for merge(), that keeps the lower value. On equal values the value of the first diagram is kept.
+     * Null is treated as no data.
+     * @return Combiner as BinaryOperator.
+     */
+    public static <Y extends Comparable> BinaryOperator<Y> minimum() {
+        return (a, b) -> a == null ? b : (b == null || a.compareTo(b) <= 0 ? a : b);
+    }
+
+    /**
+     * Returns a combiner for merge(), that keeps the higher value. On equal values the value of the first diagram is kept.
+     * Null is treated as no data.
+     * @return Combiner as BinaryOperator.
+     */
+    public static <Y extends Comparable> BinaryOperator<Y> maximum() {
+        return (a, b) -> a == null ? b : (b == null || a.compareTo(b) >= 0 ? a : b);
+    }
+
+    /**
+     * Makes sure, that a breakpoint exists at x without changing the values of the diagram.
+     * The new breakpoint takes the value of its predecessor. If there is no predecessor, it gets the default value or null.
+     * @param x Time of the breakpoint.
+     * @param useDefault If the default value (true) or null (false) shall be used, if there is no predecessor.
+     */
+    private void split(X x, boolean useDefault) {
+        if (!data.containsKey(x)) {
+            Map.Entry<X, Y> floor = data.floorEntry(x);
+            data.put(x, floor != null ? floor.getValue() : (useDefault ? defaultValue : null));
         }
+    }
 
-        if (data.size() <= 0 || data.lastKey().compareTo(from) < 0 || data.firstKey().compareTo(to) > 0) {
-            data.put(from, newValue);
-            data.put(to, defaultValue);
-        } else {
-            X floorKeyFrom = data.floorKey(from);
-            X floorKeyTo = data.floorKey(to);
-            List<X> keys = data.keySet().stream().sorted().collect(Collectors.toList());
-            Y lastValue = null;
-
-            /*
-                Neuer Datensatz unterbricht einen alten Datensatz:
-                Alt:    o--------
-                Neu:      o---
-             */
-            if (floorKeyFrom != null && floorKeyTo != null && floorKeyFrom.equals(floorKeyTo)) {
-                Y oldValue = data.get(floorKeyFrom);
-                if (oldValue == null || newValue.compareTo(oldValue) > 0) {
-                    data.put(from, newValue);
-                    data.put(to, oldValue);
-                }
+    /**
+     * Removes breakpoints between 'from' and 'to' (both inclusive), that have the same value as their predecessor.
+     * The first breakpoint of the diagram is always kept.
+     * @param from Time of the first breakpoint to check.
+     * @param to Time of the last breakpoint to check.
+     */
+    private void compact(X from, X to) {
+        Map.Entry<X, Y> lower = data.lowerEntry(from);
+        boolean hasPrevious = lower != null;
+        Y previous = hasPrevious ? lower.getValue() : null;
+        Iterator<Map.Entry<X, Y>> iterator = data.subMap(from, true, to, true).entrySet().iterator();
+        while (iterator.hasNext()) {
+            Y value = iterator.next().getValue();
+            if (hasPrevious && Objects.equals(previous, value)) {
+                iterator.remove();
             }
             else {
-                if (floorKeyFrom == null) {
-                    data.put(from, newValue);
-                    lastValue = newValue;
-                }
-                for (X key : keys) {
-                    if (key.equals(floorKeyFrom)) { // Anfang
-                        Y value = data.get(key);
-                        if (value == null || newValue.compareTo(value) > 0) {
-                            data.put(from, newValue);
-                            lastValue = newValue;
-                        }
-                        else {
-                            lastValue = value;
-                        }
-                    }
-                    else if (key.equals(floorKeyTo)) { // Ende
-                        Y value = data.get(key);
-                        if (value == null || newValue.compareTo(value) > 0) {
-                            if (lastValue == newValue) {
-                                data.remove(key);
-                            }
-                            else {
-                                data.put(key, newValue);
-                            }
-                            data.put(to, value);
-                        }
-                        else if (value == null || newValue.compareTo(value) == 0) {
-                            data.remove(key);
-                        }
-                    }
-                    else if (key.compareTo(from) > 0 && key.compareTo(to) < 0) { // Mitte
-                        Y value = data.get(key);
-                        if (value == null || newValue.compareTo(value) >= 0) {
-                            if (lastValue == newValue) {
-                                data.remove(key);
-                            }
-                            else {
-                                data.put(key, newValue);
-                            }
-                            lastValue = newValue;
-                        }
-                        else {
-                            lastValue = value;
-                        }
-                    }
-                }
+                previous = value;
+                hasPrevious = true;
             }
         }
     }
@@ -209,6 +325,28 @@ public class Diagram<X extends Number & Comparable, Y extends Comparable> {
         return data;
     }
 
+    /**
+     * Returns an index, that answers integral, mean, minimum and maximum over a time range in O(log n).
+     * The index is built in O(n) on the first call and reused until the next insert or setData().
+     * @return Aggregates of the current data.
+     */
+    public DiagramAggregates<X, Y> aggregate() {
+        DiagramAggregates<X, Y> current = aggregates;
+        if (current == null) {
+            current = new DiagramAggregates<>(data, defaultValue);
+            aggregates = current;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the default value.
+     * @return Default value as Y.
+     */
+    public Y getDefaultValue() {
+        return defaultValue;
+    }
+
     /**
      * Returns the value at x.
      * @param x Point in time, at which the value shall be returned.
@@ -0,0 +1,244 @@
+package basics.diagram;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable index over the breakpoints of a diagram, that answers aggregates over a time range in O(log n).
+ * Integral and coverage use prefix sums, minimum and maximum use a segment tree over the breakpoints.
+ * Null values count as "no data": they are skipped by all aggregates.
+ * The default value is valid before the first breakpoint, the value of the last breakpoint is valid after it.
+ * @param <X> Time, has to be a comparable number.
+ * @param <Y> Data, has to be comparable. Integral and mean need numbers.
+ */
+public final class DiagramAggregates<X extends Number & Comparable, Y extends Comparable> {
+    private final long[] keys;
+    private final Object[] values;
+    private final Y defaultValue;
+    private final double[] integral;
+    private final double[] coverage;
+    private final int[] minTree;
+    private final int[] maxTree;
+    private final int leaves;
+
+    /**
+     * Constructor for DiagramAggregates. Builds the index in O(n).
+     * @param data Breakpoints of the diagram.
+     * @param defaultValue Default value of the diagram.
+     */
+    DiagramAggregates(Map<X, Y> data, Y defaultValue) {
+        this.defaultValue = defaultValue;
+        keys = new long[data.size()];
+        values = new Object[data.size()];
+        int index = 0;
+        for (Map.Entry<X, Y> entry : data.entrySet()) {
+            keys[index] = entry.getKey().longValue();
+            values[index] = entry.getValue();
+            index++;
+        }
+
+        boolean numeric = defaultValue == null || defaultValue instanceof Number;
+        for (Object value : values) {
+            numeric &= value == null || value instanceof Number;
+        }
+        if (numeric) {
+            integral = new double[keys.length];
+            coverage = new double[keys.length];
+            for (int i = 1; i < keys.length; i++) {
+                double length = (double)keys[i] - keys[i - 1];
+                integral[i] = integral[i - 1] + (values[i - 1] == null ? 0 : length * number(values[i - 1]));
+                coverage[i] = coverage[i - 1] + (values[i - 1] == null ? 0 : length);
+            }
+        }
+        else {
+            integral = null;
+            coverage = null;
+        }
+
+        int size = 1;
+        while (size < keys.length) {
+            size <<= 1;
+        }
+        leaves = size;
+        minTree = new int[2 * size];
+        maxTree = new int[2 * size];
+        Arrays.fill(minTree, -1);
+        Arrays.fill(maxTree, -1);
+        for (int i = 0; i < keys.length; i++) {
+            minTree[size + i] = values[i] == null ? -1 : i;
+            maxTree[size + i] = minTree[size + i];
+        }
+        for (int i = size - 1; i > 0; i--) {
+            minTree[i] = better(minTree[2 * i], minTree[2 * i + 1], 1);
+            maxTree[i] = better(maxTree[2 * i], maxTree[2 * i + 1], -1);
+        }
+    }
+
+    /**
+     * Returns the integral of the values over [from, to).
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return Integral, 0 if there are no values in the range.
+     */
+    public double integral(X from, X to) {
+        checkNumeric();
+        long start = checkRange(from, to);
+        long end = to.longValue();
+        return cumulative(end, integral, true) - cumulative(start, integral, true);
+    }
+
+    /**
+     * Returns the length of the time within [from, to), at which the value isn't null.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return Length of the covered time.
+     */
+    public double coverage(X from, X to) {
+        checkNumeric();
+        long start = checkRange(from, to);
+        long end = to.longValue();
+        return cumulative(end, coverage, false) - cumulative(start, coverage, false);
+    }
+
+    /**
+     * Returns the time weighted mean of the values over [from, to). Times without a value are ignored.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return Mean, NaN if there are no values in the range.
+     */
+    public double mean(X from, X to) {
+        double covered = coverage(from, to);
+        return covered == 0 ? Double.NaN : integral(from, to) / covered;
+    }
+
+    /**
+     * Returns the lowest value within [from, to).
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return Lowest value or null, if there are no values in the range.
+     */
+    public Y min(X from, X to) {
+        return extreme(from, to, minTree, 1);
+    }
+
+    /**
+     * Returns the highest value within [from, to).
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return Highest value or null, if there are no values in the range.
+     */
+    public Y max(X from, X to) {
+        return extreme(from, to, maxTree, -1);
+    }
+
+    /**
+     * Returns the lowest or highest value within [from, to).
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @param tree Segment tree of the indices of the best values.
+     * @param order 1 for the lowest value, -1 for the highest value.
+     * @return Value or null, if there are no values in the range.
+     */
+    @SuppressWarnings("unchecked")
+    private Y extreme(X from, X to, int[] tree, int order) {
+        long start = checkRange(from, to);
+        long end = to.longValue();
+        Y result = null;
+        if (keys.length == 0 || start < keys[0]) {
+            result = defaultValue;
+        }
+        int last = floorIndex(end - 1);
+        if (last < 0) {
+            return result;
+        }
+        int first = Math.max(floorIndex(start), 0);
+        int best = -1;
+        for (int l = first + leaves, r = last + leaves + 1; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                best = better(best, tree[l++], order);
+            }
+            if ((r & 1) == 1) {
+                best = better(best, tree[--r], order);
+            }
+        }
+        if (best >= 0) {
+            Y value = (Y)values[best];
+            if (result == null || order * value.compareTo(result) < 0) {
+                result = value;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index with the better value. Indices of -1 (no value) lose, ties keep the first index.
+     * @param a First index.
+     * @param b Second index.
+     * @param order 1 for the lower value, -1 for the higher value.
+     * @return Index
+     */
+    @SuppressWarnings("unchecked")
+    private int better(int a, int b, int order) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return order * ((Comparable)values[b]).compareTo(values[a]) < 0 ? b : a;
+    }
+
+    /**
+     * Returns the prefix sum from the first breakpoint up to x. Points before the first breakpoint count negative.
+     * @param x Point in time.
+     * @param prefix Prefix sums at the breakpoints.
+     * @param weighted If the length is weighted with the value (integral) or not (coverage).
+     * @return Prefix sum
+     */
+    private double cumulative(long x, double[] prefix, boolean weighted) {
+        int index = floorIndex(x);
+        if (index < 0) {
+            if (defaultValue == null) {
+                return 0;
+            }
+            double length = keys.length == 0 ? (double)x : (double)x - keys[0];
+            return weighted ? length * number(defaultValue) : length;
+        }
+        Object value = values[index];
+        if (value == null) {
+            return prefix[index];
+        }
+        double length = (double)x - keys[index];
+        return prefix[index] + (weighted ? length * number(value) : length);
+    }
+
+    /**
+     * Returns the index of the last breakpoint lower or equal x.
+     * @param x Point in time.
+     * @return Index or -1, if there is no such breakpoint.
+     */
+    private int floorIndex(long x) {
+        int index = Arrays.binarySearch(keys, x);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private void checkNumeric() {
+        if (integral == null) {
+            throw new UnsupportedOperationException("Integral and mean need numeric values.");
+        }
+    }
+
+    private static long checkRange(Number from, Number to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("'from' and 'to' can't be null.");
+        }
+        if (from.longValue() >= to.longValue()) {
+            throw new IllegalArgumentException("'from' has to be lower than 'to'.");
+        }
+        return from.longValue();
+    }
+
+    private static double number(Object value) {
+        return ((Number)value).doubleValue();
+    }
+}
@@ -0,0 +1,391 @@
+package basics.diagram;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.TreeMap;
+
+/**
+ * Binary format for diagrams.
+ * Layout: header (magic, version, key type, value type, amount of breakpoints, default value), the breakpoints as
+ * delta encoded zigzag varints, a bitmap of the null values and the column of the non null values.
+ * The bytes are written in chunks of at most 8 KB, each preceded by its length as int, so a reader only consumes the
+ * bytes of one diagram and several diagrams can follow each other on a channel.
+ * Supported keys are Integer and Long, supported values are Short, Integer, Long, Float, Double and String.
+ */
+public final class DiagramCodec {
+    private static final int MAGIC = 0x54474D44;
+    private static final byte VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    private static final byte TYPE_NONE = 0;
+    private static final byte TYPE_SHORT = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_FLOAT = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_STRING = 6;
+
+    private DiagramCodec() {
+    }
+
+    /**
+     * Writes a diagram into a channel. The channel won't be closed.
+     * @param diagram Diagram to write.
+     * @param channel Target channel.
+     * @throws IOException If the channel can't be written.
+     */
+    public static void write(Diagram<?, ?> diagram, WritableByteChannel channel) throws IOException {
+        TreeMap<? extends Number, ? extends Comparable> data = diagram.getData();
+        Comparable defaultValue = diagram.getDefaultValue();
+
+        byte keyType = TYPE_NONE;
+        for (Number key : data.keySet()) {
+            keyType = typeOf(key, keyType);
+        }
+        if (keyType != TYPE_NONE && keyType != TYPE_INTEGER && keyType != TYPE_LONG) {
+            throw new IllegalArgumentException("Only Integer and Long are supported as keys.");
+        }
+        byte valueType = typeOf(defaultValue, TYPE_NONE);
+        for (Comparable value : data.values()) {
+            valueType = typeOf(value, valueType);
+        }
+
+        Output out = new Output(channel);
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.put(keyType);
+        out.put(valueType);
+        out.putVarLong(data.size());
+        out.put(defaultValue == null ? (byte)0 : (byte)1);
+        if (defaultValue != null) {
+            out.putValue(valueType, defaultValue);
+        }
+
+        long previous = 0;
+        for (Number key : data.keySet()) {
+            out.putVarLong(zigzag(key.longValue() - previous));
+            previous = key.longValue();
+        }
+
+        int bits = 0;
+        int amount = 0;
+        for (Comparable value : data.values()) {
+            if (value != null) {
+                bits |= 1 << (amount & 7);
+            }
+            amount++;
+            if ((amount & 7) == 0) {
+                out.put((byte)bits);
+                bits = 0;
+            }
+        }
+        if ((amount & 7) != 0) {
+            out.put((byte)bits);
+        }
+
+        for (Comparable value : data.values()) {
+            if (value != null) {
+                out.putValue(valueType, value);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a diagram from a channel, that was written by write(). The channel won't be closed.
+     * @param channel Source channel.
+     * @param <X> Time, Integer or Long depending on the stored diagram.
+     * @param <Y> Data, depending on the stored diagram.
+     * @return Diagram
+     * @throws IOException If the channel can't be read or contains no valid diagram.
+     */
+    @SuppressWarnings("unchecked")
+    public static <X extends Number & Comparable, Y extends Comparable> Diagram<X, Y> read(ReadableByteChannel channel) throws IOException {
+        Input in = new Input(channel);
+        if (in.getInt() != MAGIC) {
+            throw new IOException("The channel contains no diagram.");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IOException("Version " + version + " is not supported.");
+        }
+        byte keyType = in.get();
+        byte valueType = in.get();
+        long size = in.getVarLong();
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("Invalid amount of breakpoints: " + size);
+        }
+        Y defaultValue = in.get() == 0 ? null : (Y)in.getValue(valueType);
+
+        long[] keys = new long[(int)size];
+        long previous = 0;
+        for (int i = 0; i < keys.length; i++) {
+            previous += unzigzag(in.getVarLong());
+            keys[i] = previous;
+        }
+
+        byte[] bitmap = new byte[(keys.length + 7) >>> 3];
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] = in.get();
+        }
+
+        TreeMap<X, Y> data = new TreeMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            X key = (X)(keyType == TYPE_INTEGER ? (Number)(int)keys[i] : (Number)keys[i]);
+            boolean present = (bitmap[i >>> 3] & (1 << (i & 7))) != 0;
+            data.put(key, present ? (Y)in.getValue(valueType) : null);
+        }
+
+        Diagram<X, Y> diagram = new Diagram<>(defaultValue);
+        diagram.setData(data);
+        return diagram;
+    }
+
+    /**
+     * Determines the type tag of a value and checks, that it matches the type tag of the previous values.
+     * @param value Value, may be null.
+     * @param type Type tag of the previous values.
+     * @return Type tag
+     */
+    private static byte typeOf(Object value, byte type) {
+        if (value == null) {
+            return type;
+        }
+        byte current;
+        if (value instanceof Short) {
+            current = TYPE_SHORT;
+        }
+        else if (value instanceof Integer) {
+            current = TYPE_INTEGER;
+        }
+        else if (value instanceof Long) {
+            current = TYPE_LONG;
+        }
+        else if (value instanceof Float) {
+            current = TYPE_FLOAT;
+        }
+        else if (value instanceof Double) {
+            current = TYPE_DOUBLE;
+        }
+        else if (value instanceof String) {
+            current = TYPE_STRING;
+        }
+        else {
+            throw new IllegalArgumentException(value.getClass().getName() + " is not supported.");
+        }
+        if (type != TYPE_NONE && type != current) {
+            throw new IllegalArgumentException("All values have to be of the same type.");
+        }
+        return current;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Buffered writer for a channel.
+     */
+    private static class Output {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private Output(WritableByteChannel channel) {
+            this.channel = channel;
+            // The first 4 bytes are the length of the chunk.
+            buffer.position(4);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (buffer.position() == 4) {
+                return;
+            }
+            buffer.putInt(0, buffer.position() - 4);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            buffer.position(4);
+        }
+
+        private void put(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        private void putVarLong(long value) throws IOException {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte)((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte)value);
+        }
+
+        private void putValue(byte type, Object value) throws IOException {
+            switch (type) {
+                case TYPE_SHORT:
+                    putVarLong(zigzag((Short)value));
+                    break;
+                case TYPE_INTEGER:
+                    putVarLong(zigzag((Integer)value));
+                    break;
+                case TYPE_LONG:
+                    putVarLong(zigzag((Long)value));
+                    break;
+                case TYPE_FLOAT:
+                    ensure(4);
+                    buffer.putFloat((Float)value);
+                    break;
+                case TYPE_DOUBLE:
+                    ensure(8);
+                    buffer.putDouble((Double)value);
+                    break;
+                case TYPE_STRING:
+                    byte[] bytes = ((String)value).getBytes(StandardCharsets.UTF_8);
+                    putVarLong(bytes.length);
+                    for (int offset = 0; offset < bytes.length; ) {
+                        ensure(1);
+                        int length = Math.min(buffer.remaining(), bytes.length - offset);
+                        buffer.put(bytes, offset, length);
+                        offset += length;
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown type " + type + ".");
+            }
+        }
+    }
+
+    /**
+     * Buffered reader for a channel.
+     */
+    private static class Input {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer chunkLength = ByteBuffer.allocate(4);
+        private int chunkRemaining = 0;
+
+        private Input(ReadableByteChannel channel) {
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        /**
+         * Makes at least 'bytes' bytes available in the buffer. Only the bytes of the current chunk are read from the
+         * channel, so the bytes behind the diagram stay in the channel.
+         * @param bytes Amount of bytes.
+         * @throws IOException If the channel ends before.
+         */
+        private void require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (chunkRemaining == 0) {
+                    nextChunk();
+                }
+                buffer.limit(Math.min(buffer.capacity(), buffer.position() + chunkRemaining));
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of the diagram.");
+                }
+                chunkRemaining -= read;
+                buffer.limit(buffer.capacity());
+            }
+            buffer.flip();
+        }
+
+        /**
+         * Reads the length of the next chunk.
+         * @throws IOException If the channel ends before or the length is invalid.
+         */
+        private void nextChunk() throws IOException {
+            chunkLength.clear();
+            while (chunkLength.hasRemaining()) {
+                if (channel.read(chunkLength) < 0) {
+                    throw new EOFException("Unexpected end of the diagram.");
+                }
+            }
+            chunkRemaining = chunkLength.getInt(0);
+            if (chunkRemaining <= 0 || chunkRemaining > BUFFER_SIZE - 4) {
+                throw new IOException("The channel contains no diagram.");
+            }
+        }
+
+        private byte get() throws IOException {
+            require(1);
+            return buffer.get();
+        }
+
+        private int getInt() throws IOException {
+            require(4);
+            return buffer.getInt();
+        }
+
+        private long getVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = get();
+                value |= (long)(b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint.");
+        }
+
+        private Object getValue(byte type) throws IOException {
+            switch (type) {
+                case TYPE_SHORT:
+                    return (short)unzigzag(getVarLong());
+                case TYPE_INTEGER:
+                    return (int)unzigzag(getVarLong());
+                case TYPE_LONG:
+                    return unzigzag(getVarLong());
+                case TYPE_FLOAT:
+                    require(4);
+                    return buffer.getFloat();
+                case TYPE_DOUBLE:
+                    require(8);
+                    return buffer.getDouble();
+                case TYPE_STRING:
+                    long length = getVarLong();
+                    if (length < 0 || length > Integer.MAX_VALUE) {
+                        throw new IOException("Invalid string length: " + length);
+                    }
+                    byte[] bytes = new byte[(int)length];
+                    for (int offset = 0; offset < bytes.length; ) {
+                        require(1);
+                        int amount = Math.min(buffer.remaining(), bytes.length - offset);
+                        buffer.get(bytes, offset, amount);
+                        offset += amount;
+                    }
+                    return new String(bytes, StandardCharsets.UTF_8);
+                default:
+                    throw new IOException("Unknown type " + type + ".");
+            }
+        }
+    }
+}
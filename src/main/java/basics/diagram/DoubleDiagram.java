@@ -0,0 +1,232 @@
+package basics.diagram;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Diagram with a long time axis and double values, stored without boxing.
+ * NaN is reserved as null value and marks points with no data.
+ */
+public class DoubleDiagram extends PrimitiveDiagram {
+    public static final double NULL = Double.NaN;
+    /**
+     * Keeps the lower value. The null value is treated as no data.
+     */
+    public static final DoubleBinaryOperator MIN = (x, y) -> isNull(x) ? y : (isNull(y) ? x : Math.min(x, y));
+    /**
+     * Keeps the higher value. The null value is treated as no data.
+     */
+    public static final DoubleBinaryOperator MAX = (x, y) -> isNull(x) ? y : (isNull(y) ? x : Math.max(x, y));
+    /**
+     * Adds both values. The null value is treated as no data.
+     */
+    public static final DoubleBinaryOperator SUM = (x, y) -> isNull(x) ? y : (isNull(y) ? x : (x + y));
+    private double[] values = new double[keys.length];
+    private final double defaultValue;
+
+    /**
+     * Callback for the iteration over breakpoints.
+     */
+    public interface Consumer {
+        void accept(long x, double y);
+    }
+
+    /**
+     * Constructor for DoubleDiagram
+     * @param defaultValue Default value for points with no data. Use NULL for no default value.
+     */
+    public DoubleDiagram(double defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Returns the default value.
+     * @return Default value as double.
+     */
+    public double getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Inserts a new value into the diagram. Lower values will be kept, higher values will be replaced.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     */
+    public void insertMin(long from, long to, double newValue) {
+        checkRange(from, to);
+        beforeWrite();
+        split(to, true);
+        int start = split(from, false);
+        int end = ceilingIndex(to);
+        for (int i = start; i < end; i++) {
+            if (isNull(values[i]) || newValue < values[i]) {
+                values[i] = newValue;
+            }
+        }
+        compact(start, end);
+        afterInsert(from, to);
+    }
+
+    /**
+     * Inserts a new value into the diagram. Higher values will be kept, lower values will be replaced.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     */
+    public void insertMax(long from, long to, double newValue) {
+        checkRange(from, to);
+        beforeWrite();
+        split(to, true);
+        int start = split(from, false);
+        int end = ceilingIndex(to);
+        for (int i = start; i < end; i++) {
+            if (isNull(values[i]) || newValue > values[i]) {
+                values[i] = newValue;
+            }
+        }
+        compact(start, end);
+        afterInsert(from, to);
+    }
+
+    /**
+     * Returns an immutable snapshot of the diagram in O(1). The snapshot shares its arrays with this diagram until the
+     * next modification of this diagram, which copies them once (copy-on-write).
+     * The snapshot has to be taken by the thread, that modifies the diagram. Afterwards it can be read by any thread.
+     * @return Snapshot as DoubleDiagram.
+     */
+    public DoubleDiagram snapshot() {
+        if (frozen) {
+            return this;
+        }
+        if (shared) {
+            return (DoubleDiagram)lastSnapshot;
+        }
+        DoubleDiagram snapshot = new DoubleDiagram(defaultValue);
+        share(snapshot);
+        snapshot.values = values;
+        return snapshot;
+    }
+
+    /**
+     * Combines two diagrams point by point with a single merge walk over their breakpoints in O(n + m).
+     * Points before the first breakpoint of a diagram take its default value.
+     * @param a First diagram.
+     * @param b Second diagram.
+     * @param combiner Function to combine the values of both diagrams, e.g. MIN, MAX or SUM.
+     * @return New diagram with the combined values.
+     */
+    public static DoubleDiagram merge(DoubleDiagram a, DoubleDiagram b, DoubleBinaryOperator combiner) {
+        DoubleDiagram diagram = new DoubleDiagram(combiner.applyAsDouble(a.defaultValue, b.defaultValue));
+        int capacity = a.size + b.size;
+        long[] keys = new long[capacity];
+        int[] indexA = new int[capacity];
+        int[] indexB = new int[capacity];
+        int count = mergeKeys(a, b, keys, indexA, indexB);
+
+        diagram.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            double valueA = indexA[i] < 0 ? a.defaultValue : a.values[indexA[i]];
+            double valueB = indexB[i] < 0 ? b.defaultValue : b.values[indexB[i]];
+            diagram.keys[diagram.size] = keys[i];
+            diagram.values[diagram.size] = combiner.applyAsDouble(valueA, valueB);
+            if (diagram.size == 0 || !diagram.sameValue(diagram.size, diagram.size - 1)) {
+                diagram.size++;
+            }
+        }
+        return diagram;
+    }
+
+    /**
+     * Returns the value at x.
+     * @param x Point in time, at which the value shall be returned.
+     * @return Value or default value.
+     */
+    public double at(long x) {
+        int index = floorIndex(x);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns the value of the breakpoint at an index.
+     * @param index Index of the breakpoint.
+     * @return Value as double.
+     */
+    public double valueAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size + ".");
+        }
+        return values[index];
+    }
+
+    /**
+     * Iterates over the breakpoints between from and to (both inclusive).
+     * @param from Starting point of the iteration.
+     * @param to End point of the iteration.
+     * @param consumer Callback for each breakpoint.
+     */
+    public void forEach(long from, long to, Consumer consumer) {
+        for (int i = ceilingIndex(from); i < size && keys[i] <= to; i++) {
+            consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Converts the diagram into a boxed Diagram. The null value is converted to null.
+     * @return Diagram with the same breakpoints.
+     */
+    public Diagram<Long, Double> toDiagram() {
+        TreeMap<Long, Double> data = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            data.put(keys[i], isNull(values[i]) ? null : values[i]);
+        }
+        Diagram<Long, Double> diagram = new Diagram<>(isNull(defaultValue) ? null : defaultValue);
+        diagram.setData(data);
+        return diagram;
+    }
+
+    /**
+     * Checks if a value is the null value.
+     * @param value Value to check.
+     * @return true if the value is NaN, otherwise false.
+     */
+    public static boolean isNull(double value) {
+        return Double.isNaN(value);
+    }
+
+    @Override
+    protected void resizeValues(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected void moveValues(int from, int to, int length) {
+        System.arraycopy(values, from, values, to, length);
+    }
+
+    @Override
+    protected void copyValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    protected boolean sameValue(int a, int b) {
+        return values[a] == values[b] || (isNull(values[a]) && isNull(values[b]));
+    }
+
+    @Override
+    protected boolean prefer(int candidate, int current, boolean max) {
+        return !isNull(values[candidate]) && (isNull(values[current]) || (max ? values[candidate] > values[current] : values[candidate] < values[current]));
+    }
+
+    @Override
+    protected void setDefault(int index) {
+        values[index] = defaultValue;
+    }
+
+    @Override
+    protected void setNull(int index) {
+        values[index] = NULL;
+    }
+}
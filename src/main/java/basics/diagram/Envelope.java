@@ -0,0 +1,61 @@
+package basics.diagram;
+
+import java.util.Arrays;
+
+/**
+ * Helper for the bulk construction of lower and upper envelopes.
+ * The time axis is split into elementary segments between consecutive interval borders. The intervals are processed
+ * from the best to the worst value and every segment is assigned to the first interval covering it.
+ */
+final class Envelope {
+    private Envelope() {
+    }
+
+    /**
+     * Assigns every segment to the first interval in 'order' that covers it.
+     * @param from Index of the first segment of each interval.
+     * @param to Index of the first segment after each interval.
+     * @param order Indices of the intervals, best value first.
+     * @param length Amount of intervals.
+     * @param segments Amount of segments.
+     * @return Index of the covering interval for every segment, or -1 if no interval covers it.
+     */
+    static int[] paint(int[] from, int[] to, int[] order, int length, int segments) {
+        int[] owner = new int[segments];
+        Arrays.fill(owner, -1);
+        int[] next = new int[segments + 1];
+        for (int i = 0; i <= segments; i++) {
+            next[i] = i;
+        }
+
+        for (int k = 0; k < length; k++) {
+            int interval = order[k];
+            int segment = find(next, from[interval]);
+            while (segment < to[interval]) {
+                owner[segment] = interval;
+                next[segment] = segment + 1;
+                segment = find(next, segment + 1);
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Returns the first unassigned segment with an index greater or equal to 'segment'. Compresses the visited path.
+     * @param next Pointer to the next possibly unassigned segment.
+     * @param segment Index to start from.
+     * @return Index of the segment.
+     */
+    private static int find(int[] next, int segment) {
+        int root = segment;
+        while (next[root] != root) {
+            root = next[root];
+        }
+        while (next[segment] != root) {
+            int following = next[segment];
+            next[segment] = root;
+            segment = following;
+        }
+        return root;
+    }
+}
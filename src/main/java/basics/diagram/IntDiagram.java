@@ -0,0 +1,318 @@
+package basics.diagram;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Diagram with a long time axis and int values, stored without boxing.
+ * Integer.MIN_VALUE is reserved as null value and marks points with no data.
+ */
+public class IntDiagram extends PrimitiveDiagram {
+    public static final int NULL = Integer.MIN_VALUE;
+    /**
+     * Keeps the lower value. The null value is treated as no data.
+     */
+    public static final IntBinaryOperator MIN = (x, y) -> x == NULL ? y : (y == NULL ? x : Math.min(x, y));
+    /**
+     * Keeps the higher value. The null value is treated as no data.
+     */
+    public static final IntBinaryOperator MAX = (x, y) -> x == NULL ? y : (y == NULL ? x : Math.max(x, y));
+    /**
+     * Adds both values. The null value is treated as no data.
+     */
+    public static final IntBinaryOperator SUM = (x, y) -> x == NULL ? y : (y == NULL ? x : (x + y));
+    private int[] values = new int[keys.length];
+    private final int defaultValue;
+
+    /**
+     * Callback for the iteration over breakpoints.
+     */
+    public interface Consumer {
+        void accept(long x, int y);
+    }
+
+    /**
+     * Constructor for IntDiagram
+     * @param defaultValue Default value for points with no data. Use NULL for no default value.
+     */
+    public IntDiagram(int defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Returns the default value.
+     * @return Default value as int.
+     */
+    public int getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Inserts a new value into the diagram. Lower values will be kept, higher values will be replaced.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     */
+    public void insertMin(long from, long to, int newValue) {
+        checkRange(from, to);
+        beforeWrite();
+        split(to, true);
+        int start = split(from, false);
+        int end = ceilingIndex(to);
+        for (int i = start; i < end; i++) {
+            if (values[i] == NULL || newValue < values[i]) {
+                values[i] = newValue;
+            }
+        }
+        compact(start, end);
+        afterInsert(from, to);
+    }
+
+    /**
+     * Inserts a new value into the diagram. Higher values will be kept, lower values will be replaced.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     */
+    public void insertMax(long from, long to, int newValue) {
+        checkRange(from, to);
+        beforeWrite();
+        split(to, true);
+        int start = split(from, false);
+        int end = ceilingIndex(to);
+        for (int i = start; i < end; i++) {
+            if (values[i] == NULL || newValue > values[i]) {
+                values[i] = newValue;
+            }
+        }
+        compact(start, end);
+        afterInsert(from, to);
+    }
+
+    /**
+     * Returns an immutable snapshot of the diagram in O(1). The snapshot shares its arrays with this diagram until the
+     * next modification of this diagram, which copies them once (copy-on-write).
+     * The snapshot has to be taken by the thread, that modifies the diagram. Afterwards it can be read by any thread.
+     * @return Snapshot as IntDiagram.
+     */
+    public IntDiagram snapshot() {
+        if (frozen) {
+            return this;
+        }
+        if (shared) {
+            return (IntDiagram)lastSnapshot;
+        }
+        IntDiagram snapshot = new IntDiagram(defaultValue);
+        share(snapshot);
+        snapshot.values = values;
+        return snapshot;
+    }
+
+    /**
+     * Builds a diagram from a batch of intervals. The result is the same as inserting all intervals with insertMin,
+     * but it is determined with a single sort and sweep.
+     * @param intervals Intervals to insert.
+     * @param defaultValue Default value for points with no data.
+     * @return Lower envelope of the intervals as IntDiagram.
+     */
+    public static IntDiagram buildMin(IntIntervals intervals, int defaultValue) {
+        return build(intervals, defaultValue, false);
+    }
+
+    /**
+     * Builds a diagram from a batch of intervals. The result is the same as inserting all intervals with insertMax,
+     * but it is determined with a single sort and sweep.
+     * @param intervals Intervals to insert.
+     * @param defaultValue Default value for points with no data.
+     * @return Upper envelope of the intervals as IntDiagram.
+     */
+    public static IntDiagram buildMax(IntIntervals intervals, int defaultValue) {
+        return build(intervals, defaultValue, true);
+    }
+
+    /**
+     * Builds the lower or upper envelope of a batch of intervals.
+     * @param intervals Intervals to insert.
+     * @param defaultValue Default value for points with no data.
+     * @param max If higher values (true) or lower values (false) shall be kept.
+     * @return Envelope as IntDiagram.
+     */
+    private static IntDiagram build(IntIntervals intervals, int defaultValue, boolean max) {
+        IntDiagram diagram = new IntDiagram(defaultValue);
+        int length = intervals.size();
+        if (length == 0) {
+            return diagram;
+        }
+
+        long[] coordinates = new long[length * 2];
+        for (int i = 0; i < length; i++) {
+            coordinates[2 * i] = intervals.fromAt(i);
+            coordinates[2 * i + 1] = intervals.toAt(i);
+        }
+        Arrays.sort(coordinates);
+        int unique = 1;
+        for (int i = 1; i < coordinates.length; i++) {
+            if (coordinates[i] != coordinates[unique - 1]) {
+                coordinates[unique++] = coordinates[i];
+            }
+        }
+
+        // Sort by value and keep the insertion order for equal values: value in the upper, index in the lower bits.
+        int[] from = new int[length];
+        int[] to = new int[length];
+        long[] sortKeys = new long[length];
+        for (int i = 0; i < length; i++) {
+            from[i] = Arrays.binarySearch(coordinates, 0, unique, intervals.fromAt(i));
+            to[i] = Arrays.binarySearch(coordinates, 0, unique, intervals.toAt(i));
+            int value = intervals.valueAt(i);
+            sortKeys[i] = ((long)(max ? ~value : value) << 32) | i;
+        }
+        Arrays.sort(sortKeys);
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = (int)sortKeys[i];
+        }
+
+        int[] owner = Envelope.paint(from, to, order, length, unique - 1);
+        diagram.ensureCapacity(unique);
+        for (int segment = 0; segment < unique; segment++) {
+            int value = segment < owner.length && owner[segment] >= 0 ? intervals.valueAt(owner[segment]) : defaultValue;
+            if (diagram.size == 0 || diagram.values[diagram.size - 1] != value) {
+                diagram.keys[diagram.size] = coordinates[segment];
+                diagram.values[diagram.size] = value;
+                diagram.size++;
+            }
+        }
+        return diagram;
+    }
+
+    /**
+     * Combines two diagrams point by point with a single merge walk over their breakpoints in O(n + m).
+     * Points before the first breakpoint of a diagram take its default value.
+     * @param a First diagram.
+     * @param b Second diagram.
+     * @param combiner Function to combine the values of both diagrams, e.g. MIN, MAX or SUM.
+     * @return New diagram with the combined values.
+     */
+    public static IntDiagram merge(IntDiagram a, IntDiagram b, IntBinaryOperator combiner) {
+        IntDiagram diagram = new IntDiagram(combiner.applyAsInt(a.defaultValue, b.defaultValue));
+        int capacity = a.size + b.size;
+        long[] keys = new long[capacity];
+        int[] indexA = new int[capacity];
+        int[] indexB = new int[capacity];
+        int count = mergeKeys(a, b, keys, indexA, indexB);
+
+        diagram.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            int valueA = indexA[i] < 0 ? a.defaultValue : a.values[indexA[i]];
+            int valueB = indexB[i] < 0 ? b.defaultValue : b.values[indexB[i]];
+            diagram.keys[diagram.size] = keys[i];
+            diagram.values[diagram.size] = combiner.applyAsInt(valueA, valueB);
+            if (diagram.size == 0 || !diagram.sameValue(diagram.size, diagram.size - 1)) {
+                diagram.size++;
+            }
+        }
+        return diagram;
+    }
+
+    /**
+     * Returns the value at x.
+     * @param x Point in time, at which the value shall be returned.
+     * @return Value or default value.
+     */
+    public int at(long x) {
+        int index = floorIndex(x);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns the highest value within [from, to) in O(log n + k), k being the amount of breakpoints in the range.
+     * Unlike DiagramAggregates.max() the null value isn't skipped, so the result bounds the value of every point.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return Highest value or NULL, if a point within the range has no data.
+     */
+    public int upperBound(long from, long to) {
+        checkRange(from, to);
+        int index = floorIndex(from);
+        int max = index < 0 ? defaultValue : values[index];
+        for (int i = index + 1; max != NULL && i < size && keys[i] < to; i++) {
+            max = values[i] == NULL ? NULL : Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the value of the breakpoint at an index.
+     * @param index Index of the breakpoint.
+     * @return Value as int.
+     */
+    public int valueAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size + ".");
+        }
+        return values[index];
+    }
+
+    /**
+     * Iterates over the breakpoints between from and to (both inclusive).
+     * @param from Starting point of the iteration.
+     * @param to End point of the iteration.
+     * @param consumer Callback for each breakpoint.
+     */
+    public void forEach(long from, long to, Consumer consumer) {
+        for (int i = ceilingIndex(from); i < size && keys[i] <= to; i++) {
+            consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Converts the diagram into a boxed Diagram. The null value is converted to null.
+     * @return Diagram with the same breakpoints.
+     */
+    public Diagram<Long, Integer> toDiagram() {
+        TreeMap<Long, Integer> data = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            data.put(keys[i], values[i] == NULL ? null : values[i]);
+        }
+        Diagram<Long, Integer> diagram = new Diagram<>(defaultValue == NULL ? null : defaultValue);
+        diagram.setData(data);
+        return diagram;
+    }
+
+    @Override
+    protected void resizeValues(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected void moveValues(int from, int to, int length) {
+        System.arraycopy(values, from, values, to, length);
+    }
+
+    @Override
+    protected void copyValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    protected boolean sameValue(int a, int b) {
+        return values[a] == values[b];
+    }
+
+    @Override
+    protected boolean prefer(int candidate, int current, boolean max) {
+        return values[candidate] != NULL && (values[current] == NULL || (max ? values[candidate] > values[current] : values[candidate] < values[current]));
+    }
+
+    @Override
+    protected void setDefault(int index) {
+        values[index] = defaultValue;
+    }
+
+    @Override
+    protected void setNull(int index) {
+        values[index] = NULL;
+    }
+}
@@ -0,0 +1,76 @@
+package basics.diagram;
+
+import java.util.Arrays;
+
+/**
+ * Buffer for (from, to, value) intervals with int values, stored in primitive columns.
+ * Used to collect intervals and build an IntDiagram from them at once.
+ */
+public class IntIntervals {
+    private long[] from = new long[16];
+    private long[] to = new long[16];
+    private int[] values = new int[16];
+    private int size = 0;
+
+    /**
+     * Adds an interval to the buffer.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param value Value of the interval.
+     */
+    public void add(long from, long to, int value) {
+        PrimitiveDiagram.checkRange(from, to);
+        if (size == this.from.length) {
+            int capacity = size * 2;
+            this.from = Arrays.copyOf(this.from, capacity);
+            this.to = Arrays.copyOf(this.to, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+        this.from[size] = from;
+        this.to[size] = to;
+        this.values[size] = value;
+        size++;
+    }
+
+    /**
+     * Returns the amount of intervals.
+     * @return Amount of intervals as int.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all intervals. The memory is kept for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the starting time of an interval.
+     * @param index Index of the interval.
+     * @return Starting time as long.
+     */
+    public long fromAt(int index) {
+        return from[index];
+    }
+
+    /**
+     * Returns the end time of an interval.
+     * @param index Index of the interval.
+     * @return End time as long.
+     */
+    public long toAt(int index) {
+        return to[index];
+    }
+
+    /**
+     * Returns the value of an interval.
+     * @param index Index of the interval.
+     * @return Value as int.
+     */
+    public int valueAt(int index) {
+        return values[index];
+    }
+}
@@ -0,0 +1,384 @@
+package basics.diagram;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.TreeMap;
+
+/**
+ * Diagram with a long time axis and long values, stored off-heap in a memory-mapped file.
+ * The breakpoints are stored as sorted (time, value) records behind a small header, so the diagram can be reopened
+ * after a restart without deserialization. It has the same semantics as IntDiagram.
+ * Long.MIN_VALUE is reserved as null value and marks points with no data.
+ * A single mapping is used, so the file is limited to 2 GB (about 134 million breakpoints).
+ */
+public class MappedDiagram implements Closeable {
+    public static final long NULL = Long.MIN_VALUE;
+    private static final int MAGIC = 0x54474D4D;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SIZE_OFFSET = 8;
+    private static final int DEFAULT_OFFSET = 16;
+    private static final int RECORD_SIZE = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final long defaultValue;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    /**
+     * Callback for the iteration over breakpoints.
+     */
+    public interface Consumer {
+        void accept(long x, long y);
+    }
+
+    private MappedDiagram(FileChannel channel, long defaultValue, int size) throws IOException {
+        this.channel = channel;
+        this.defaultValue = defaultValue;
+        this.size = size;
+        long records = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        map((int)Math.max(INITIAL_CAPACITY, Math.min(records, maxCapacity())));
+    }
+
+    /**
+     * Creates a new diagram in a file. An existing file is overwritten.
+     * @param path Path of the file.
+     * @param defaultValue Default value for points with no data. Use NULL for no default value.
+     * @return Empty MappedDiagram
+     * @throws IOException If the file can't be created.
+     */
+    public static MappedDiagram create(Path path, long defaultValue) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedDiagram diagram = new MappedDiagram(channel, defaultValue, 0);
+        diagram.buffer.putInt(0, MAGIC);
+        diagram.buffer.putInt(4, VERSION);
+        diagram.buffer.putLong(SIZE_OFFSET, 0);
+        diagram.buffer.putLong(DEFAULT_OFFSET, defaultValue);
+        return diagram;
+    }
+
+    /**
+     * Opens a diagram, that was created with create().
+     * @param path Path of the file.
+     * @return MappedDiagram with the stored data.
+     * @throws IOException If the file can't be opened or contains no diagram.
+     */
+    public static MappedDiagram open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("The file contains no diagram.");
+                }
+            }
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("The file contains no diagram.");
+            }
+            long size = header.getLong(SIZE_OFFSET);
+            if (size < 0 || HEADER_SIZE + size * RECORD_SIZE > channel.size()) {
+                throw new IOException("The file is corrupted.");
+            }
+            return new MappedDiagram(channel, header.getLong(DEFAULT_OFFSET), (int)size);
+        }
+        catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the default value.
+     * @return Default value as long.
+     */
+    public long getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Returns the amount of breakpoints.
+     * @return Amount of breakpoints as int.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the time of the breakpoint at an index.
+     * @param index Index of the breakpoint.
+     * @return Time as long.
+     */
+    public long keyAt(int index) {
+        checkIndex(index);
+        return key(index);
+    }
+
+    /**
+     * Returns the value of the breakpoint at an index.
+     * @param index Index of the breakpoint.
+     * @return Value as long.
+     */
+    public long valueAt(int index) {
+        checkIndex(index);
+        return value(index);
+    }
+
+    /**
+     * Returns the index of the breakpoint with the highest time lower or equal to x.
+     * @param x Point in time.
+     * @return Index of the breakpoint or -1, if there is none.
+     */
+    public int floorIndex(long x) {
+        int index = search(x);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Returns the index of the first breakpoint with a time greater or equal to x.
+     * @param x Point in time.
+     * @return Index of the breakpoint or size(), if there is none.
+     */
+    public int ceilingIndex(long x) {
+        int index = search(x);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns the value at x.
+     * @param x Point in time, at which the value shall be returned.
+     * @return Value or default value.
+     */
+    public long at(long x) {
+        int index = floorIndex(x);
+        return index < 0 ? defaultValue : value(index);
+    }
+
+    /**
+     * Iterates over the breakpoints between from and to (both inclusive).
+     * @param from Starting point of the iteration.
+     * @param to End point of the iteration.
+     * @param consumer Callback for each breakpoint.
+     */
+    public void forEach(long from, long to, Consumer consumer) {
+        for (int i = ceilingIndex(from); i < size && key(i) <= to; i++) {
+            consumer.accept(key(i), value(i));
+        }
+    }
+
+    /**
+     * Inserts a new value into the diagram. Lower values will be kept, higher values will be replaced.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     * @throws IOException If the file can't be enlarged.
+     */
+    public void insertMin(long from, long to, long newValue) throws IOException {
+        insert(from, to, newValue, false);
+    }
+
+    /**
+     * Inserts a new value into the diagram. Higher values will be kept, lower values will be replaced.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     * @throws IOException If the file can't be enlarged.
+     */
+    public void insertMax(long from, long to, long newValue) throws IOException {
+        insert(from, to, newValue, true);
+    }
+
+    /**
+     * Converts the diagram into a boxed Diagram. The null value is converted to null.
+     * @return Diagram with the same breakpoints.
+     */
+    public Diagram<Long, Long> toDiagram() {
+        TreeMap<Long, Long> data = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            data.put(key(i), value(i) == NULL ? null : value(i));
+        }
+        Diagram<Long, Long> diagram = new Diagram<>(defaultValue == NULL ? null : defaultValue);
+        diagram.setData(data);
+        return diagram;
+    }
+
+    /**
+     * Writes all changes to the storage device.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Inserts a new value like the insert methods of IntDiagram.
+     * @param from Starting time, from which the value will be valid.
+     * @param to End time, to which the value will be valued.
+     * @param newValue The new value to insert.
+     * @param max If higher values (true) or lower values (false) shall be kept.
+     * @throws IOException If the file can't be enlarged.
+     */
+    private void insert(long from, long to, long newValue, boolean max) throws IOException {
+        PrimitiveDiagram.checkRange(from, to);
+        split(to, true);
+        int start = split(from, false);
+        int end = ceilingIndex(to);
+        for (int i = start; i < end; i++) {
+            long value = value(i);
+            if (value == NULL || (max ? newValue > value : newValue < value)) {
+                setValue(i, newValue);
+            }
+        }
+        compact(start, end);
+        buffer.putLong(SIZE_OFFSET, size);
+    }
+
+    /**
+     * Makes sure, that a breakpoint exists at x without changing the values of the diagram.
+     * @param x Time of the breakpoint.
+     * @param useDefault If the default value (true) or the null value (false) shall be used, if there is no predecessor.
+     * @return Index of the breakpoint.
+     * @throws IOException If the file can't be enlarged.
+     */
+    private int split(long x, boolean useDefault) throws IOException {
+        int index = search(x);
+        if (index >= 0) {
+            return index;
+        }
+        index = -index - 1;
+        if (size + 1 > capacity) {
+            map((int)Math.min(Math.max((long)capacity * 2, size + 1), maxCapacity()));
+            if (size + 1 > capacity) {
+                throw new IOException("The diagram can't hold more than " + capacity + " breakpoints.");
+            }
+        }
+        moveRecords(index, index + 1, size - index);
+        setKey(index, x);
+        setValue(index, index > 0 ? value(index - 1) : (useDefault ? defaultValue : NULL));
+        size++;
+        return index;
+    }
+
+    /**
+     * Removes breakpoints between the indices 'from' and 'to' (both inclusive), that have the same value as their predecessor.
+     * @param from Index of the first breakpoint to check.
+     * @param to Index of the last breakpoint to check.
+     */
+    private void compact(int from, int to) {
+        int write = Math.max(from, 1);
+        for (int read = write; read <= to; read++) {
+            if (value(read) != value(write - 1)) {
+                if (read != write) {
+                    setKey(write, key(read));
+                    setValue(write, value(read));
+                }
+                write++;
+            }
+        }
+        int removed = to + 1 - write;
+        if (removed > 0) {
+            moveRecords(to + 1, write, size - to - 1);
+            size -= removed;
+        }
+    }
+
+    /**
+     * Moves a block of records inside the file. Overlapping blocks are supported.
+     * @param from Index of the first record to move.
+     * @param to Destination index of the first record.
+     * @param length Amount of records to move.
+     */
+    private void moveRecords(int from, int to, int length) {
+        if (length <= 0 || from == to) {
+            return;
+        }
+        byte[] chunk = new byte[(int)Math.min(COPY_BUFFER_SIZE, (long)length * RECORD_SIZE)];
+        ByteBuffer source = buffer.duplicate();
+        ByteBuffer target = buffer.duplicate();
+        long remaining = (long)length * RECORD_SIZE;
+        long sourceStart = offset(from);
+        long targetStart = offset(to);
+        while (remaining > 0) {
+            int amount = (int)Math.min(chunk.length, remaining);
+            // Moving to the back starts at the end of the block, so no record is overwritten before it is read.
+            long position = to > from ? remaining - amount : (long)length * RECORD_SIZE - remaining;
+            source.position((int)(sourceStart + position));
+            source.get(chunk, 0, amount);
+            target.position((int)(targetStart + position));
+            target.put(chunk, 0, amount);
+            remaining -= amount;
+        }
+    }
+
+    /**
+     * Maps the file with room for a given amount of records. The file is enlarged if necessary.
+     * @param newCapacity Amount of records.
+     * @throws IOException If the file can't be mapped.
+     */
+    private void map(int newCapacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long)newCapacity * RECORD_SIZE);
+        capacity = newCapacity;
+    }
+
+    private int search(long x) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long key = key(middle);
+            if (key < x) {
+                low = middle + 1;
+            }
+            else if (key > x) {
+                high = middle - 1;
+            }
+            else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size + ".");
+        }
+    }
+
+    private static int maxCapacity() {
+        return (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private long key(int index) {
+        return buffer.getLong(offset(index));
+    }
+
+    private long value(int index) {
+        return buffer.getLong(offset(index) + 8);
+    }
+
+    private void setKey(int index, long key) {
+        buffer.putLong(offset(index), key);
+    }
+
+    private void setValue(int index, long value) {
+        buffer.putLong(offset(index) + 8, value);
+    }
+}
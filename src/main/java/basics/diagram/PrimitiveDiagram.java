@@ -0,0 +1,400 @@
+package basics.diagram;
+
+import java.util.Arrays;
+
+/**
+ * Base class for diagrams with a primitive long time axis. The breakpoints are stored in a sorted long array and the
+ * values in a parallel primitive column, which is managed by the subclasses.
+ * The value of a breakpoint is valid until the next breakpoint. Before the first breakpoint the default value is returned.
+ */
+public abstract class PrimitiveDiagram {
+    private static final int INITIAL_CAPACITY = 16;
+    protected long[] keys = new long[INITIAL_CAPACITY];
+    protected int size = 0;
+    protected boolean frozen = false;
+    protected boolean shared = false;
+    protected PrimitiveDiagram lastSnapshot = null;
+    protected long resolution = 0;
+    protected Compaction compaction = null;
+
+    /**
+     * Returns the amount of breakpoints.
+     * @return Amount of breakpoints as int.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the time of the breakpoint at an index.
+     * @param index Index of the breakpoint.
+     * @return Time as long.
+     */
+    public long keyAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size + ".");
+        }
+        return keys[index];
+    }
+
+    /**
+     * Returns the index of the breakpoint with the highest time lower or equal to x.
+     * @param x Point in time.
+     * @return Index of the breakpoint or -1, if there is none.
+     */
+    public int floorIndex(long x) {
+        int index = Arrays.binarySearch(keys, 0, size, x);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Returns the index of the first breakpoint with a time greater or equal to x.
+     * @param x Point in time.
+     * @return Index of the breakpoint or size(), if there is none.
+     */
+    public int ceilingIndex(long x) {
+        int index = Arrays.binarySearch(keys, 0, size, x);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Checks if the diagram is an immutable snapshot.
+     * @return true if it is a snapshot, otherwise false.
+     */
+    public boolean isSnapshot() {
+        return frozen;
+    }
+
+    /**
+     * Lets a snapshot share the breakpoints of this diagram. The subclass has to share its value column, too.
+     * @param snapshot New, empty diagram which becomes the snapshot.
+     */
+    protected void share(PrimitiveDiagram snapshot) {
+        snapshot.keys = keys;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        shared = true;
+        lastSnapshot = snapshot;
+    }
+
+    /**
+     * Prepares the arrays for a modification. Copies them, if they are shared with a snapshot (copy-on-write).
+     */
+    protected void beforeWrite() {
+        if (frozen) {
+            throw new UnsupportedOperationException("A snapshot can't be modified.");
+        }
+        if (shared) {
+            keys = Arrays.copyOf(keys, keys.length);
+            resizeValues(keys.length);
+            shared = false;
+        }
+    }
+
+    /**
+     * Downsamples the diagram to a time resolution in O(n). Every bucket [k * resolution, (k + 1) * resolution), that
+     * contains breakpoints, gets a single value at its start, determined by the policy. Afterwards adjacent equal values
+     * are coalesced, so every breakpoint is a multiple of the resolution.
+     * @param resolution Width of the buckets.
+     * @param policy How the values within a bucket are combined.
+     */
+    public void downsample(long resolution, Compaction policy) {
+        checkCompaction(resolution, policy);
+        beforeWrite();
+        int n = size;
+        // The result is written behind the original breakpoints, so those stay readable. Every bucket adds up to two.
+        ensureCapacity(3 * n);
+        int write = n;
+        int i = 0;
+        while (i < n) {
+            long bucket = Math.floorDiv(keys[i], resolution);
+            long start = bucket * resolution;
+            int j = i + 1;
+            while (j < n && Math.floorDiv(keys[j], resolution) == bucket) {
+                j++;
+            }
+
+            int first = i;
+            keys[write] = start;
+            if (keys[i] == start) {
+                copyValue(i, write);
+                first++;
+            }
+            else if (i > 0) {
+                copyValue(i - 1, write);
+            }
+            else {
+                setDefault(write);
+            }
+            if (policy != Compaction.FIRST) {
+                for (int k = first; k < j; k++) {
+                    if (prefer(k, write, policy == Compaction.MAX)) {
+                        copyValue(k, write);
+                    }
+                }
+            }
+            write = append(n, write);
+
+            // The value after the bucket is restored, unless the next bucket starts there anyway.
+            boolean nextAdjacent = j < n && Math.floorDiv(keys[j], resolution) == bucket + 1;
+            if (first < j && !nextAdjacent && start <= Long.MAX_VALUE - resolution) {
+                keys[write] = start + resolution;
+                copyValue(j - 1, write);
+                write = append(n, write);
+            }
+            i = j;
+        }
+        System.arraycopy(keys, n, keys, 0, write - n);
+        moveValues(n, 0, write - n);
+        size = write - n;
+    }
+
+    /**
+     * Enables the downsampling on insert. The current data is downsampled immediately and after every insert the
+     * buckets at the start and the end of the inserted range are downsampled again, which bounds the amount of
+     * breakpoints by the covered time divided by the resolution.
+     * With Compaction.MIN and insertMin (or Compaction.MAX and insertMax) the result is the same as downsampling once
+     * after all inserts.
+     * @param resolution Width of the buckets.
+     * @param policy How the values within a bucket are combined.
+     */
+    public void setCompaction(long resolution, Compaction policy) {
+        downsample(resolution, policy);
+        this.resolution = resolution;
+        this.compaction = policy;
+    }
+
+    /**
+     * Disables the downsampling on insert.
+     */
+    public void clearCompaction() {
+        this.resolution = 0;
+        this.compaction = null;
+    }
+
+    /**
+     * Downsamples the buckets at the boundaries of an inserted range, if the downsampling on insert is enabled.
+     * The breakpoints between both buckets are already multiples of the resolution.
+     * @param from Starting time of the insert.
+     * @param to End time of the insert.
+     */
+    protected void afterInsert(long from, long to) {
+        if (compaction != null) {
+            downsampleBucket(Math.floorDiv(from, resolution));
+            downsampleBucket(Math.floorDiv(to, resolution));
+        }
+    }
+
+    /**
+     * Downsamples a single bucket like downsample() does.
+     * @param bucket Index of the bucket.
+     */
+    private void downsampleBucket(long bucket) {
+        long start = bucket * resolution;
+        int first = ceilingIndex(start);
+        if (first >= size || keys[first] >= start + resolution || (keys[first] == start
+                && (first + 1 >= size || keys[first + 1] >= start + resolution))) {
+            return;
+        }
+        if (start <= Long.MAX_VALUE - resolution) {
+            split(start + resolution, true);
+        }
+        int index = split(start, true);
+        int end = start <= Long.MAX_VALUE - resolution ? ceilingIndex(start + resolution) : size;
+        if (compaction != Compaction.FIRST) {
+            for (int k = index + 1; k < end; k++) {
+                if (prefer(k, index, compaction == Compaction.MAX)) {
+                    copyValue(k, index);
+                }
+            }
+        }
+        System.arraycopy(keys, end, keys, index + 1, size - end);
+        moveValues(end, index + 1, size - end);
+        size -= end - index - 1;
+        compact(index, Math.min(index + 1, size - 1));
+    }
+
+    /**
+     * Keeps the breakpoint at an index of the downsampling output, unless it has the same value as its predecessor.
+     * @param offset Index of the first breakpoint of the output.
+     * @param index Index of the breakpoint.
+     * @return Index for the next breakpoint.
+     */
+    private int append(int offset, int index) {
+        return index > offset && sameValue(index, index - 1) ? index : index + 1;
+    }
+
+    private static void checkCompaction(long resolution, Compaction policy) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("'resolution' has to be greater than 0.");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("'policy' can't be null.");
+        }
+    }
+
+    /**
+     * Checks the arguments of the insert methods.
+     * @param from Starting time.
+     * @param to End time.
+     */
+    protected static void checkRange(long from, long to) {
+        if (from == to) {
+            throw new IllegalArgumentException("'from' and 'to' can't have the same value.");
+        }
+        if (from > to) {
+            throw new IllegalArgumentException("'from' can't be greater than 'to'.");
+        }
+    }
+
+    /**
+     * Grows the key array and the value column, if they can't hold the given amount of breakpoints.
+     * @param capacity Required amount of breakpoints.
+     */
+    protected void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newCapacity = Math.max(capacity, keys.length * 2);
+            keys = Arrays.copyOf(keys, newCapacity);
+            resizeValues(newCapacity);
+        }
+    }
+
+    /**
+     * Makes sure, that a breakpoint exists at x without changing the values of the diagram.
+     * The new breakpoint takes the value of its predecessor. If there is no predecessor, it gets the default value or the null value.
+     * @param x Time of the breakpoint.
+     * @param useDefault If the default value (true) or the null value (false) shall be used, if there is no predecessor.
+     * @return Index of the breakpoint.
+     */
+    protected int split(long x, boolean useDefault) {
+        int index = Arrays.binarySearch(keys, 0, size, x);
+        if (index >= 0) {
+            return index;
+        }
+        index = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        moveValues(index, index + 1, size - index);
+        keys[index] = x;
+        if (index > 0) {
+            copyValue(index - 1, index);
+        }
+        else if (useDefault) {
+            setDefault(index);
+        }
+        else {
+            setNull(index);
+        }
+        size++;
+        return index;
+    }
+
+    /**
+     * Removes breakpoints between the indices 'from' and 'to' (both inclusive), that have the same value as their predecessor.
+     * The first breakpoint of the diagram is always kept.
+     * @param from Index of the first breakpoint to check.
+     * @param to Index of the last breakpoint to check.
+     */
+    protected void compact(int from, int to) {
+        int write = Math.max(from, 1);
+        for (int read = write; read <= to; read++) {
+            if (!sameValue(read, write - 1)) {
+                if (read != write) {
+                    keys[write] = keys[read];
+                    copyValue(read, write);
+                }
+                write++;
+            }
+        }
+        int removed = to + 1 - write;
+        if (removed > 0) {
+            System.arraycopy(keys, to + 1, keys, write, size - to - 1);
+            moveValues(to + 1, write, size - to - 1);
+            size -= removed;
+        }
+    }
+
+    /**
+     * Determines the union of the breakpoints of two diagrams with a single merge walk.
+     * For every breakpoint of the union the index of the valid breakpoint in both diagrams is stored.
+     * @param a First diagram.
+     * @param b Second diagram.
+     * @param keys Destination for the union of the breakpoints. Needs space for a.size() + b.size() elements.
+     * @param indexA Destination for the index of the valid breakpoint of 'a', -1 if there is none.
+     * @param indexB Destination for the index of the valid breakpoint of 'b', -1 if there is none.
+     * @return Amount of breakpoints in the union.
+     */
+    protected static int mergeKeys(PrimitiveDiagram a, PrimitiveDiagram b, long[] keys, int[] indexA, int[] indexB) {
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.size || j < b.size) {
+            long key;
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                key = a.keys[i++];
+            }
+            else if (i >= a.size || b.keys[j] < a.keys[i]) {
+                key = b.keys[j++];
+            }
+            else {
+                key = a.keys[i++];
+                j++;
+            }
+            keys[count] = key;
+            indexA[count] = i - 1;
+            indexB[count] = j - 1;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Resizes the value column.
+     * @param capacity New capacity of the column.
+     */
+    protected abstract void resizeValues(int capacity);
+
+    /**
+     * Moves a block of values inside the value column.
+     * @param from Index of the first value to move.
+     * @param to Destination index of the first value.
+     * @param length Amount of values to move.
+     */
+    protected abstract void moveValues(int from, int to, int length);
+
+    /**
+     * Copies a single value inside the value column.
+     * @param from Index of the source value.
+     * @param to Index of the destination.
+     */
+    protected abstract void copyValue(int from, int to);
+
+    /**
+     * Checks if two values of the value column are the same.
+     * @param a Index of the first value.
+     * @param b Index of the second value.
+     * @return true if they are the same, otherwise false.
+     */
+    protected abstract boolean sameValue(int a, int b);
+
+    /**
+     * Checks if a value shall replace another one when a bucket is downsampled. The null value is treated as no data.
+     * @param candidate Index of the candidate value.
+     * @param current Index of the current value.
+     * @param max If the higher value (true) or the lower value (false) wins.
+     * @return true if the candidate wins, otherwise false.
+     */
+    protected abstract boolean prefer(int candidate, int current, boolean max);
+
+    /**
+     * Sets a value to the default value.
+     * @param index Index of the value.
+     */
+    protected abstract void setDefault(int index);
+
+    /**
+     * Sets a value to the null value.
+     * @param index Index of the value.
+     */
+    protected abstract void setNull(int index);
+}
@@ -0,0 +1,317 @@
+package basics.graph;
+
+import importing.api.IImporter;
+import org.gradoop.common.model.impl.id.GradoopId;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdgeFactory;
+import org.gradoop.temporal.model.impl.pojo.TemporalVertex;
+import org.gradoop.temporal.model.impl.pojo.TemporalVertexFactory;
+
+import java.util.*;
+
+/**
+ * Columnar store of the edges of a temporal graph. Every edge needs 28 bytes in primitive columns (source, target,
+ * valid from, valid to and label) instead of a TemporalEdge object with its id, properties and validity tuples.
+ * Vertices are mapped to dense int ids in the order, in which they are added, edge labels are stored in a dictionary.
+ * The edges keep the order, in which they are added.
+ */
+public class EdgeStore {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_LABEL = -1;
+
+    private final Map<GradoopId, Integer> vertexIds = new HashMap<>();
+    private final Map<String, Integer> vertexLabelIds = new HashMap<>();
+    private final List<GradoopId> vertices = new ArrayList<>();
+    private final List<String> vertexLabels = new ArrayList<>();
+    private final Map<String, Integer> labelIds = new HashMap<>();
+    private final List<String> labels = new ArrayList<>();
+    private int[] sources = new int[INITIAL_CAPACITY];
+    private int[] targets = new int[INITIAL_CAPACITY];
+    private long[] validFrom = new long[INITIAL_CAPACITY];
+    private long[] validTo = new long[INITIAL_CAPACITY];
+    private int[] edgeLabels = new int[INITIAL_CAPACITY];
+    private int size = 0;
+    private List<TemporalEdge> originals = null;
+
+    /**
+     * Creates a store with the edges of a list. The TemporalEdge objects are kept, so edge() returns the original edges.
+     * @param edges Edges of the graph. Vertices are taken from the edges.
+     * @return EdgeStore
+     */
+    public static EdgeStore of(List<TemporalEdge> edges) {
+        return of(Collections.emptyList(), edges);
+    }
+
+    /**
+     * Creates a store with the vertices and edges of a graph. The TemporalEdge objects are kept, so edge() returns the
+     * original edges.
+     * @param vertices Vertices of the graph. They get the first ids in the given order, also if they have no edges.
+     * @param edges Edges of the graph. Vertices, that are only known from the edges, get the following ids.
+     * @return EdgeStore
+     */
+    public static EdgeStore of(Collection<TemporalVertex> vertices, List<TemporalEdge> edges) {
+        if (vertices == null || edges == null) {
+            throw new IllegalArgumentException("Arguments can't be null.");
+        }
+        EdgeStore store = new EdgeStore();
+        for (TemporalVertex vertex : vertices) {
+            store.addVertex(vertex.getId(), vertex.getLabel());
+        }
+        store.ensureCapacity(edges.size());
+        for (TemporalEdge edge : edges) {
+            store.addEdge(store.addVertex(edge.getSourceId(), null), store.addVertex(edge.getTargetId(), null),
+                    edge.getValidFrom(), edge.getValidTo(), edge.getLabel());
+        }
+        store.originals = edges;
+        return store;
+    }
+
+    /**
+     * Creates a store with the graph of an importer.
+     * @param importer Importer of the graph.
+     * @return EdgeStore
+     */
+    public static EdgeStore of(IImporter importer) {
+        return of(importer.getVertices(), importer.getEdges());
+    }
+
+    /**
+     * Adds a vertex, if it isn't part of the store yet.
+     * @param id GradoopId of the vertex.
+     * @param label Label of the vertex, may be null.
+     * @return Dense id of the vertex.
+     */
+    public int addVertex(GradoopId id, String label) {
+        if (id == null) {
+            throw new IllegalArgumentException("Id can't be null.");
+        }
+        Integer index = vertexIds.get(id);
+        if (index == null) {
+            index = vertices.size();
+            vertexIds.put(id, index);
+            vertices.add(id);
+            vertexLabels.add(label);
+            if (label != null) {
+                vertexLabelIds.putIfAbsent(label, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Adds a new vertex with a new GradoopId.
+     * @param label Label of the vertex, may be null.
+     * @return Dense id of the vertex.
+     */
+    public int addVertex(String label) {
+        return addVertex(GradoopId.get(), label);
+    }
+
+    /**
+     * Adds an edge.
+     * @param source Dense id of the source vertex.
+     * @param target Dense id of the target vertex.
+     * @param validFrom Valid-from-time of the edge.
+     * @param validTo Valid-to-time of the edge.
+     * @param label Label of the edge, may be null.
+     * @return Index of the edge.
+     */
+    public int addEdge(int source, int target, long validFrom, long validTo, String label) {
+        if (source < 0 || source >= vertices.size() || target < 0 || target >= vertices.size()) {
+            throw new IllegalArgumentException("Source and target have to be vertices of the store.");
+        }
+        ensureCapacity(size + 1);
+        sources[size] = source;
+        targets[size] = target;
+        this.validFrom[size] = validFrom;
+        this.validTo[size] = validTo;
+        edgeLabels[size] = labelId(label);
+        // Edges, that are added later, have no original.
+        originals = null;
+        return size++;
+    }
+
+    /**
+     * Returns the amount of vertices.
+     * @return Amount of vertices as int.
+     */
+    public int vertexCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns the amount of edges.
+     * @return Amount of edges as int.
+     */
+    public int edgeCount() {
+        return size;
+    }
+
+    /**
+     * Returns the dense id of a vertex.
+     * @param id GradoopId of the vertex.
+     * @return Dense id or -1, if the vertex isn't part of the store.
+     */
+    public int vertexId(GradoopId id) {
+        Integer index = vertexIds.get(id);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the first vertex with a label.
+     * @param label Label of the vertex.
+     * @return Dense id or -1, if there is no vertex with the label.
+     */
+    public int findVertex(String label) {
+        Integer index = vertexLabelIds.get(label);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the GradoopId of a vertex.
+     * @param vertex Dense id of the vertex.
+     * @return GradoopId
+     */
+    public GradoopId vertex(int vertex) {
+        return vertices.get(vertex);
+    }
+
+    /**
+     * Returns the label of a vertex.
+     * @param vertex Dense id of the vertex.
+     * @return Label or null, if the vertex has no label.
+     */
+    public String vertexLabel(int vertex) {
+        return vertexLabels.get(vertex);
+    }
+
+    /**
+     * Creates TemporalVertex objects for all vertices of the store, e.g. for TemporalBetweennessCentrality.
+     * @return List of vertices in the order of their dense ids.
+     */
+    public List<TemporalVertex> createVertices() {
+        TemporalVertexFactory factory = new TemporalVertexFactory();
+        List<TemporalVertex> list = new ArrayList<>(vertices.size());
+        for (int v = 0; v < vertices.size(); v++) {
+            list.add(factory.initVertex(vertices.get(v), vertexLabels.get(v) == null ? "" : vertexLabels.get(v)));
+        }
+        return list;
+    }
+
+    /**
+     * Returns the dense id of the source vertex of an edge.
+     * @param edge Index of the edge.
+     * @return Dense id of the vertex.
+     */
+    public int source(int edge) {
+        checkIndex(edge);
+        return sources[edge];
+    }
+
+    /**
+     * Returns the dense id of the target vertex of an edge.
+     * @param edge Index of the edge.
+     * @return Dense id of the vertex.
+     */
+    public int target(int edge) {
+        checkIndex(edge);
+        return targets[edge];
+    }
+
+    /**
+     * Returns the valid-from-time of an edge.
+     * @param edge Index of the edge.
+     * @return Valid-from-time as long.
+     */
+    public long validFrom(int edge) {
+        checkIndex(edge);
+        return validFrom[edge];
+    }
+
+    /**
+     * Returns the valid-to-time of an edge.
+     * @param edge Index of the edge.
+     * @return Valid-to-time as long.
+     */
+    public long validTo(int edge) {
+        checkIndex(edge);
+        return validTo[edge];
+    }
+
+    /**
+     * Returns the label of an edge.
+     * @param edge Index of the edge.
+     * @return Label or null, if the edge has no label.
+     */
+    public String label(int edge) {
+        checkIndex(edge);
+        return edgeLabels[edge] == NO_LABEL ? null : labels.get(edgeLabels[edge]);
+    }
+
+    /**
+     * Returns the labels of the edges. The position of a label is its id in the dictionary.
+     * @return Unmodifiable list of labels.
+     */
+    public List<String> labels() {
+        return Collections.unmodifiableList(labels);
+    }
+
+    /**
+     * Returns an edge as TemporalEdge. Stores, that were created from TemporalEdge objects, return the original edge.
+     * Otherwise a new TemporalEdge with a new id is created on every call.
+     * @param edge Index of the edge.
+     * @return TemporalEdge
+     */
+    public TemporalEdge edge(int edge) {
+        checkIndex(edge);
+        if (originals != null) {
+            return originals.get(edge);
+        }
+        String label = label(edge);
+        TemporalEdge result = new TemporalEdgeFactory().createEdge(label == null ? "" : label,
+                vertices.get(sources[edge]), vertices.get(targets[edge]));
+        result.setValidFrom(validFrom[edge]);
+        result.setValidTo(validTo[edge]);
+        return result;
+    }
+
+    /**
+     * Returns the dictionary id of a label and adds the label, if it isn't part of the dictionary yet.
+     * @param label Label, may be null.
+     * @return Id of the label or NO_LABEL.
+     */
+    private int labelId(String label) {
+        if (label == null) {
+            return NO_LABEL;
+        }
+        Integer id = labelIds.get(label);
+        if (id == null) {
+            id = labels.size();
+            labelIds.put(label, id);
+            labels.add(label);
+        }
+        return id;
+    }
+
+    /**
+     * Enlarges the columns, so they can hold a given amount of edges.
+     * @param capacity Amount of edges.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= sources.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, sources.length * 2);
+        sources = Arrays.copyOf(sources, newCapacity);
+        targets = Arrays.copyOf(targets, newCapacity);
+        validFrom = Arrays.copyOf(validFrom, newCapacity);
+        validTo = Arrays.copyOf(validTo, newCapacity);
+        edgeLabels = Arrays.copyOf(edgeLabels, newCapacity);
+    }
+
+    private void checkIndex(int edge) {
+        if (edge < 0 || edge >= size) {
+            throw new IndexOutOfBoundsException("Index " + edge + " is out of bounds for size " + size + ".");
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package basics.graph;
+
+import java.util.Arrays;
+
+/**
+ * Sweep line over the start and end times of the edges of a graph. Between two consecutive times the set of valid
+ * edges doesn't change, so every elementary interval is a static snapshot of the graph.
+ * The sweep reports the changes of the set and every snapshot with at least one valid edge.
+ * Edges with validFrom >= validTo are never valid.
+ */
+public class EventSweep {
+    private final TemporalGraphIndex index;
+    private final boolean[] valid;
+    private final int[] byFrom;
+    private final int[] byTo;
+    private final long[] times;
+
+    /**
+     * Callback for the events of the sweep.
+     */
+    public interface Listener {
+        /**
+         * An edge becomes valid.
+         * @param edge Index of the edge.
+         */
+        default void added(int edge) {
+        }
+
+        /**
+         * An edge isn't valid anymore.
+         * @param edge Index of the edge.
+         */
+        default void removed(int edge) {
+        }
+
+        /**
+         * The valid edges don't change between 'from' and 'to'.
+         * @param from Start of the elementary interval (inclusive).
+         * @param to End of the elementary interval (exclusive).
+         */
+        void snapshot(long from, long to);
+    }
+
+    /**
+     * Constructor for EventSweep. Sorts the events in O(m log m).
+     * @param index Index of the graph.
+     */
+    public EventSweep(TemporalGraphIndex index) {
+        this.index = index;
+        int amount = 0;
+        for (int e = 0; e < index.edgeCount(); e++) {
+            if (index.validFrom(e) < index.validTo(e)) {
+                amount++;
+            }
+        }
+        valid = new boolean[index.edgeCount()];
+        byFrom = new int[amount];
+        byTo = new int[amount];
+        long[] endpoints = new long[2 * amount];
+        int position = 0;
+        for (int e = 0; e < index.edgeCount(); e++) {
+            if (index.validFrom(e) < index.validTo(e)) {
+                byFrom[position] = e;
+                byTo[position] = e;
+                endpoints[2 * position] = index.validFrom(e);
+                endpoints[2 * position + 1] = index.validTo(e);
+                position++;
+            }
+        }
+        sort(index, byFrom, true);
+        sort(index, byTo, false);
+        Arrays.sort(endpoints);
+        int distinct = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            if (i == 0 || endpoints[i] != endpoints[i - 1]) {
+                endpoints[distinct++] = endpoints[i];
+            }
+        }
+        times = Arrays.copyOf(endpoints, distinct);
+    }
+
+    /**
+     * Returns, if an edge is valid in the current snapshot of the sweep.
+     * @param edge Index of the edge.
+     * @return True, if the edge is valid.
+     */
+    public boolean isValid(int edge) {
+        return valid[edge];
+    }
+
+    /**
+     * Returns the amount of elementary intervals.
+     * @return Amount of intervals as int.
+     */
+    public int snapshots() {
+        return Math.max(times.length - 1, 0);
+    }
+
+    /**
+     * Runs the sweep from the earliest to the latest time. At every time, removals are reported before additions.
+     * @param listener Callback for the events.
+     */
+    public void run(Listener listener) {
+        Arrays.fill(valid, false);
+        int nextFrom = 0;
+        int nextTo = 0;
+        int amount = 0;
+        for (int i = 0; i + 1 < times.length; i++) {
+            long time = times[i];
+            while (nextTo < byTo.length && index.validTo(byTo[nextTo]) <= time) {
+                valid[byTo[nextTo]] = false;
+                listener.removed(byTo[nextTo++]);
+                amount--;
+            }
+            while (nextFrom < byFrom.length && index.validFrom(byFrom[nextFrom]) <= time) {
+                valid[byFrom[nextFrom]] = true;
+                listener.added(byFrom[nextFrom++]);
+                amount++;
+            }
+            if (amount > 0) {
+                listener.snapshot(time, times[i + 1]);
+            }
+        }
+        while (nextTo < byTo.length) {
+            valid[byTo[nextTo]] = false;
+            listener.removed(byTo[nextTo++]);
+        }
+    }
+
+    /**
+     * Sorts edges by their valid-from-time or valid-to-time. Edges with the same time keep their order.
+     * @param index Index of the graph.
+     * @param edges Indices of the edges.
+     * @param from If the edges are sorted by valid-from-time (true) or valid-to-time (false).
+     */
+    public static void sort(TemporalGraphIndex index, int[] edges, boolean from) {
+        long[] keys = new long[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            keys[i] = from ? index.validFrom(edges[i]) : index.validTo(edges[i]);
+        }
+        // Merge sort on the keys, that moves the edges along.
+        int[] edgeBuffer = new int[edges.length];
+        long[] keyBuffer = new long[edges.length];
+        for (int width = 1; width < edges.length; width *= 2) {
+            for (int low = 0; low < edges.length; low += 2 * width) {
+                int middle = Math.min(low + width, edges.length);
+                int high = Math.min(low + 2 * width, edges.length);
+                int left = low;
+                int right = middle;
+                for (int k = low; k < high; k++) {
+                    if (left < middle && (right >= high || keys[left] <= keys[right])) {
+                        edgeBuffer[k] = edges[left];
+                        keyBuffer[k] = keys[left++];
+                    }
+                    else {
+                        edgeBuffer[k] = edges[right];
+                        keyBuffer[k] = keys[right++];
+                    }
+                }
+            }
+            System.arraycopy(edgeBuffer, 0, edges, 0, edges.length);
+            System.arraycopy(keyBuffer, 0, keys, 0, edges.length);
+        }
+    }
+}
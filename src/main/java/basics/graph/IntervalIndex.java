@@ -0,0 +1,245 @@
+package basics.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Dynamic index of intervals [from, to) for overlap and disjointness queries in O(log n + k).
+ * The intervals are stored in two treaps, one ordered by start and augmented with the highest end of every subtree,
+ * one ordered by end. Query results are returned in insertion order.
+ * @param <T> Element, that belongs to an interval.
+ */
+public class IntervalIndex<T> {
+    private final SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+    private final List<T> elements = new ArrayList<>();
+    private Node byFrom = null;
+    private Node byTo = null;
+
+    /**
+     * Node of a treap. 'key' is the order of the treap, 'other' the opposite end of the interval.
+     */
+    private static class Node {
+        private final long key;
+        private final long other;
+        private final int sequence;
+        private final int priority;
+        private long max;
+        private Node left;
+        private Node right;
+
+        private Node(long key, long other, int sequence, int priority) {
+            this.key = key;
+            this.other = other;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.max = other;
+        }
+
+        private boolean before(Node node) {
+            return key < node.key || (key == node.key && sequence < node.sequence);
+        }
+
+        private void update() {
+            max = other;
+            if (left != null && left.max > max) {
+                max = left.max;
+            }
+            if (right != null && right.max > max) {
+                max = right.max;
+            }
+        }
+    }
+
+    /**
+     * Growable list of the sequence numbers of found intervals.
+     */
+    private static class Hits {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Inserts an interval.
+     * @param from Start of the interval (inclusive).
+     * @param to End of the interval (exclusive).
+     * @param element Element, that belongs to the interval.
+     */
+    public void insert(long from, long to, T element) {
+        int sequence = elements.size();
+        elements.add(element);
+        byFrom = insert(byFrom, new Node(from, to, sequence, random.nextInt()));
+        byTo = insert(byTo, new Node(to, from, sequence, random.nextInt()));
+    }
+
+    /**
+     * Returns the amount of intervals.
+     * @return Amount of intervals as int.
+     */
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * Removes all intervals.
+     */
+    public void clear() {
+        elements.clear();
+        byFrom = null;
+        byTo = null;
+    }
+
+    /**
+     * Returns all elements in insertion order.
+     * @return Unmodifiable list of elements.
+     */
+    public List<T> elements() {
+        return Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * Returns all intervals, that overlap with [from, to): interval.from < to and interval.to > from.
+     * @param from Start of the range.
+     * @param to End of the range.
+     * @return Elements of the intervals in insertion order.
+     */
+    public List<T> overlapping(long from, long to) {
+        Hits hits = new Hits();
+        overlapping(byFrom, from, to, hits);
+        return collect(hits);
+    }
+
+    /**
+     * Returns all intervals, that end before 'from' or start after 'to': interval.to < from or interval.from > to.
+     * @param from Start of the range.
+     * @param to End of the range.
+     * @return Elements of the intervals in insertion order.
+     */
+    public List<T> disjoint(long from, long to) {
+        Hits hits = new Hits();
+        lower(byTo, from, hits);
+        higher(byFrom, to, hits);
+        return collect(hits);
+    }
+
+    /**
+     * Inserts a node into a treap.
+     * @param root Root of the treap.
+     * @param node New node.
+     * @return New root of the treap.
+     */
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        Node pivot = null;
+        if (node.before(root)) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                pivot = root.left;
+                root.left = pivot.right;
+                pivot.right = root;
+            }
+        }
+        else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                pivot = root.right;
+                root.right = pivot.left;
+                pivot.left = root;
+            }
+        }
+        root.update();
+        if (pivot == null) {
+            return root;
+        }
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Collects the nodes of the start ordered treap with key < to and other > from.
+     * Subtrees, whose highest end isn't greater than 'from', contain no result and are skipped.
+     */
+    private static void overlapping(Node node, long from, long to, Hits hits) {
+        while (node != null && node.max > from) {
+            overlapping(node.left, from, to, hits);
+            if (node.key >= to) {
+                return;
+            }
+            if (node.other > from) {
+                hits.add(node.sequence);
+            }
+            node = node.right;
+        }
+    }
+
+    /**
+     * Collects the nodes of a treap with key < x.
+     */
+    private static void lower(Node node, long x, Hits hits) {
+        while (node != null) {
+            if (node.key < x) {
+                all(node.left, hits);
+                hits.add(node.sequence);
+                node = node.right;
+            }
+            else {
+                node = node.left;
+            }
+        }
+    }
+
+    /**
+     * Collects the nodes of a treap with key > x.
+     */
+    private static void higher(Node node, long x, Hits hits) {
+        while (node != null) {
+            if (node.key > x) {
+                all(node.right, hits);
+                hits.add(node.sequence);
+                node = node.left;
+            }
+            else {
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Collects all nodes of a subtree.
+     */
+    private static void all(Node node, Hits hits) {
+        while (node != null) {
+            all(node.left, hits);
+            hits.add(node.sequence);
+            node = node.right;
+        }
+    }
+
+    /**
+     * Sorts the found intervals by insertion order and returns their elements. An interval, that was found twice, e.g.
+     * by both passes of disjoint(), is returned once.
+     * @param hits Sequence numbers of the found intervals.
+     * @return List of elements.
+     */
+    private List<T> collect(Hits hits) {
+        Arrays.sort(hits.values, 0, hits.size);
+        List<T> result = new ArrayList<>(hits.size);
+        for (int i = 0; i < hits.size; i++) {
+            if (i == 0 || hits.values[i] != hits.values[i - 1]) {
+                result.add(elements.get(hits.values[i]));
+            }
+        }
+        return result;
+    }
+}
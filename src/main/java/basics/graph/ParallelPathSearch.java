@@ -0,0 +1,241 @@
+package basics.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Depth-first enumeration of the paths between two vertices on a ForkJoinPool.
+ * The enumeration is the same as the one of PathSearch: the successors of a path are visited in the order of the
+ * edges, a successor, that reaches the destination vertex, ends the path and skips the following successors.
+ * The subtrees of the successors, that are visited, are independent, so they are split across the workers. Ranges of
+ * successors are split in halves and single successors are descended into, as long as the pool has idle workers.
+ * Every worker collects the paths of its subtrees in its own result. The results are combined in the order of the
+ * enumeration, so combiners, that keep the first of equal values, give the same result as a sequential enumeration.
+ * @param <A> Type of the result, e.g. a diagram.
+ */
+public class ParallelPathSearch<A> {
+    private static final int MAX_SPLIT_DEPTH = 64;
+    private final TemporalGraphIndex index;
+    private final int startVertex;
+    private final int endVertex;
+    private final Rules<A> rules;
+    private final Supplier<A> supplier;
+    private final BinaryOperator<A> combiner;
+    private final ThreadLocal<int[]> onPath;
+    private final ThreadLocal<PathSearch> searches;
+
+    /**
+     * Callback for the metric specific parts of the enumeration.
+     * @param <A> Type of the result.
+     */
+    public interface Rules<A> {
+        /**
+         * Checks, if an edge can extend a path.
+         * @param from Start of the time span, in which all edges of the path are valid.
+         * @param to End of the time span, in which all edges of the path are valid.
+         * @param lastEdge Index of the last edge of the path.
+         * @param edge Index of the edge.
+         * @return True, if the edge extends the path.
+         */
+        boolean follows(long from, long to, int lastEdge, int edge);
+
+        /**
+         * Checks, if the successors of a path, that doesn't end at the destination vertex, are visited. Paths, that
+         * can't improve the result, can be skipped with it.
+         * @param path Indices of the edges of the path. Only valid during the call.
+         * @param length Amount of edges of the path.
+         * @param from Start of the time span, in which all edges of the path are valid.
+         * @param to End of the time span, in which all edges of the path are valid.
+         * @param result Result of the current worker.
+         * @return True, if the successors of the path are visited.
+         */
+        default boolean explores(int[] path, int length, long from, long to, A result) {
+            return true;
+        }
+
+        /**
+         * A path reached the destination vertex.
+         * @param path Indices of the edges of the path. Only valid during the call.
+         * @param length Amount of edges of the path.
+         * @param from Start of the time span, in which all edges of the path are valid.
+         * @param to End of the time span, in which all edges of the path are valid.
+         * @param result Result of the current worker.
+         */
+        void found(int[] path, int length, long from, long to, A result);
+    }
+
+    /**
+     * Constructor for ParallelPathSearch
+     * @param index Index of the graph.
+     * @param startVertex Dense id of the origin vertex.
+     * @param endVertex Dense id of the destination vertex.
+     * @param rules Metric specific parts of the enumeration.
+     * @param supplier Creates an empty result for a worker.
+     * @param combiner Combines the result of earlier paths (first argument) with the result of later paths.
+     */
+    public ParallelPathSearch(TemporalGraphIndex index, int startVertex, int endVertex, Rules<A> rules,
+                              Supplier<A> supplier, BinaryOperator<A> combiner) {
+        this.index = index;
+        this.startVertex = startVertex;
+        this.endVertex = endVertex;
+        this.rules = rules;
+        this.supplier = supplier;
+        this.combiner = combiner;
+        this.onPath = ThreadLocal.withInitial(() -> new int[index.vertexCount()]);
+        this.searches = ThreadLocal.withInitial(() -> new PathSearch(index));
+    }
+
+    /**
+     * Enumerates the paths, that start with one of the given edges.
+     * @param rootEdges Indices of the first edges of the paths, in the order, in which they are visited.
+     * @param pool Pool, on whose threads the paths are enumerated. It is kept by the caller for following runs.
+     * @return Combined result of all workers.
+     */
+    public A run(int[] rootEdges, ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool can't be null.");
+        }
+        int[] children = truncate(rootEdges, rootEdges.length);
+        return pool.invoke(new Task(new int[0], Long.MIN_VALUE, Long.MAX_VALUE, children, 0, children.length));
+    }
+
+    /**
+     * Cuts a list of successors after the first one, that reaches the destination vertex.
+     * @param edges Indices of the successors.
+     * @param length Amount of successors in 'edges'.
+     * @return Successors, that are visited.
+     */
+    private int[] truncate(int[] edges, int length) {
+        for (int i = 0; i < length; i++) {
+            if (index.target(edges[i]) == endVertex) {
+                return Arrays.copyOf(edges, i + 1);
+            }
+        }
+        return length == edges.length ? edges : Arrays.copyOf(edges, length);
+    }
+
+    /**
+     * Collects the successors of a path.
+     * @param from Start of the time span of the path.
+     * @param to End of the time span of the path.
+     * @param lastEdge Index of the last edge of the path.
+     * @param marks Amount of times every vertex is on the path.
+     * @return Successors, that are visited.
+     */
+    private int[] successors(long from, long to, int lastEdge, int[] marks) {
+        int vertex = index.target(lastEdge);
+        int[] edges = new int[index.outEnd(vertex) - index.outStart(vertex)];
+        int length = 0;
+        for (int e = index.outStart(vertex); e < index.outEnd(vertex); e++) {
+            if (marks[index.target(e)] == 0 && rules.follows(from, to, lastEdge, e)) {
+                edges[length++] = e;
+            }
+        }
+        return truncate(edges, length);
+    }
+
+    /**
+     * Task, that enumerates the subtrees of a range of successors of a path.
+     */
+    private class Task extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+        private final int[] path;
+        private final long from;
+        private final long to;
+        private final int[] children;
+        private final int low;
+        private final int high;
+
+        /**
+         * Constructor of Task
+         * @param path Indices of the edges of the path.
+         * @param from Start of the time span of the path.
+         * @param to End of the time span of the path.
+         * @param children Successors of the path.
+         * @param low First successor of the range (inclusive).
+         * @param high Last successor of the range (exclusive).
+         */
+        private Task(int[] path, long from, long to, int[] children, int low, int high) {
+            this.path = path;
+            this.from = from;
+            this.to = to;
+            this.children = children;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected A compute() {
+            boolean split = path.length < MAX_SPLIT_DEPTH && getSurplusQueuedTaskCount() <= 1;
+            if (split && high - low > 1) {
+                int middle = (low + high) >>> 1;
+                Task right = new Task(path, from, to, children, middle, high);
+                right.fork();
+                A left = new Task(path, from, to, children, low, middle).compute();
+                return combiner.apply(left, right.join());
+            }
+            if (split && high - low == 1 && index.target(children[low]) != endVertex) {
+                int edge = children[low];
+                int[] longer = Arrays.copyOf(path, path.length + 1);
+                longer[path.length] = edge;
+                long newFrom = Math.max(from, index.validFrom(edge));
+                long newTo = Math.min(to, index.validTo(edge));
+                A result = supplier.get();
+                if (!rules.explores(longer, longer.length, newFrom, newTo, result)) {
+                    return result;
+                }
+                int[] marks = mark(longer, 1);
+                int[] next = successors(newFrom, newTo, edge, marks);
+                mark(longer, -1);
+                if (next.length == 0) {
+                    return result;
+                }
+                return new Task(longer, newFrom, newTo, next, 0, next.length).compute();
+            }
+            return enumerate();
+        }
+
+        /**
+         * Marks the vertices of the path.
+         * @param edges Indices of the edges of the path.
+         * @param amount 1 to mark the vertices, -1 to unmark them.
+         * @return Marks of the current thread.
+         */
+        private int[] mark(int[] edges, int amount) {
+            int[] marks = onPath.get();
+            marks[startVertex] += amount;
+            for (int edge : edges) {
+                marks[index.target(edge)] += amount;
+            }
+            return marks;
+        }
+
+        /**
+         * Enumerates the subtrees of the range on the current thread.
+         * @return Result of the subtrees.
+         */
+        private A enumerate() {
+            A result = supplier.get();
+            searches.get().run(startVertex, endVertex, new PathSearch.Rules() {
+                @Override
+                public boolean follows(long from, long to, int lastEdge, int edge) {
+                    return rules.follows(from, to, lastEdge, edge);
+                }
+
+                @Override
+                public boolean explores(int[] path, int length, long from, long to) {
+                    return rules.explores(path, length, from, to, result);
+                }
+
+                @Override
+                public void found(int[] path, int length, long from, long to) {
+                    rules.found(path, length, from, to, result);
+                }
+            }, path, from, to, children, low, high);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package basics.graph;
+
+import java.util.Arrays;
+
+/**
+ * Labels of the partial paths of a search, that reached a vertex, with the time span of the path and a cost.
+ * A label dominates another label of the same vertex, if its time span contains the other one and its cost is lower
+ * or equal. Every extension of the dominated path is also an extension of the dominating path, ignoring vertices, that
+ * are visited twice, and it can't be better. Only the labels, that aren't dominated, are kept per vertex.
+ */
+public class ParetoFrontier {
+    private final long[][] froms;
+    private final long[][] tos;
+    private final long[][] costs;
+    private final int[] sizes;
+
+    /**
+     * Constructor for ParetoFrontier
+     * @param vertexCount Amount of vertices of the graph.
+     */
+    public ParetoFrontier(int vertexCount) {
+        froms = new long[vertexCount][];
+        tos = new long[vertexCount][];
+        costs = new long[vertexCount][];
+        sizes = new int[vertexCount];
+    }
+
+    /**
+     * Adds a label to a vertex, unless a label of the vertex dominates it. The labels, that the new label dominates,
+     * are removed.
+     * @param vertex Dense id of the vertex.
+     * @param from Start of the time span of the path.
+     * @param to End of the time span of the path.
+     * @param cost Cost of the path, e.g. its amount of hops.
+     * @return True, if the label was added, false if it is dominated.
+     */
+    public boolean add(int vertex, long from, long to, long cost) {
+        int size = sizes[vertex];
+        long[] vertexFroms = froms[vertex];
+        long[] vertexTos = tos[vertex];
+        long[] vertexCosts = costs[vertex];
+        for (int i = 0; i < size; i++) {
+            if (vertexFroms[i] <= from && vertexTos[i] >= to && vertexCosts[i] <= cost) {
+                return false;
+            }
+        }
+
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!(from <= vertexFroms[i] && to >= vertexTos[i] && cost <= vertexCosts[i])) {
+                vertexFroms[kept] = vertexFroms[i];
+                vertexTos[kept] = vertexTos[i];
+                vertexCosts[kept] = vertexCosts[i];
+                kept++;
+            }
+        }
+        if (vertexFroms == null) {
+            vertexFroms = froms[vertex] = new long[4];
+            vertexTos = tos[vertex] = new long[4];
+            vertexCosts = costs[vertex] = new long[4];
+        }
+        else if (kept == vertexFroms.length) {
+            vertexFroms = froms[vertex] = Arrays.copyOf(vertexFroms, kept * 2);
+            vertexTos = tos[vertex] = Arrays.copyOf(vertexTos, kept * 2);
+            vertexCosts = costs[vertex] = Arrays.copyOf(vertexCosts, kept * 2);
+        }
+        vertexFroms[kept] = from;
+        vertexTos[kept] = to;
+        vertexCosts[kept] = cost;
+        sizes[vertex] = kept + 1;
+        return true;
+    }
+}
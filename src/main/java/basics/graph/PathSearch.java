@@ -0,0 +1,242 @@
+package basics.graph;
+
+/**
+ * Depth-first enumeration of the paths between two vertices, that is shared by the metrics.
+ * The successors of a path are visited in the order of the edges of the index. A successor, that reaches the
+ * destination vertex, ends the path and skips the following successors of the same path, unless the rules visit all
+ * successors. A path never visits a vertex twice, except for a loop at the origin vertex as first edge.
+ * The path, the edge cursors of every level and the visited vertices are kept in arrays, that are allocated once, so
+ * the enumeration itself allocates nothing. The metric only decides, which edges extend a path, which paths are worth
+ * extending, and what to do with a path, that reached the destination vertex.
+ */
+public class PathSearch {
+    private final TemporalGraphIndex index;
+    private final long[] visited;
+    private final int[] path;
+    private final int[] cursors;
+    private final int[] ends;
+    private final long[] froms;
+    private final long[] tos;
+    private int[] firstEdges;
+
+    /**
+     * Callback for the metric specific parts of the enumeration.
+     */
+    public interface Rules {
+        /**
+         * Checks, if a path can start with an edge of the origin vertex.
+         * @param edge Index of the edge.
+         * @return True, if the edge is a first edge.
+         */
+        default boolean starts(int edge) {
+            return true;
+        }
+
+        /**
+         * Checks, if an edge can extend a path.
+         * @param from Start of the time span, in which all edges of the path are valid.
+         * @param to End of the time span, in which all edges of the path are valid.
+         * @param lastEdge Index of the last edge of the path.
+         * @param edge Index of the edge.
+         * @return True, if the edge extends the path.
+         */
+        boolean follows(long from, long to, int lastEdge, int edge);
+
+        /**
+         * Checks, if the paths, that extend a path, can still change the result. Otherwise they are skipped. The
+         * following successors of the shorter path are visited as usual.
+         * @param path Indices of the edges of the path. Only valid during the call.
+         * @param length Amount of edges of the path.
+         * @param from Start of the time span, in which all edges of the path are valid.
+         * @param to End of the time span, in which all edges of the path are valid.
+         * @return True, if the successors of the path are visited.
+         */
+        default boolean explores(int[] path, int length, long from, long to) {
+            return true;
+        }
+
+        /**
+         * Checks, if a successor, that reaches the destination vertex, skips the following successors of the same path.
+         * @return True (default), if they are skipped, false to visit all successors.
+         */
+        default boolean skipsSiblings() {
+            return true;
+        }
+
+        /**
+         * A path reached the destination vertex.
+         * @param path Indices of the edges of the path. Only valid during the call.
+         * @param length Amount of edges of the path.
+         * @param from Start of the time span, in which all edges of the path are valid.
+         * @param to End of the time span, in which all edges of the path are valid.
+         */
+        void found(int[] path, int length, long from, long to);
+    }
+
+    /**
+     * Constructor for PathSearch. The search can be run for any pair of vertices of the index, but only on one thread
+     * at a time.
+     * @param index Index of the graph.
+     */
+    public PathSearch(TemporalGraphIndex index) {
+        this.index = index;
+        int depth = index.vertexCount() + 2;
+        visited = new long[(index.vertexCount() + 63) >>> 6];
+        path = new int[depth];
+        cursors = new int[depth];
+        ends = new int[depth];
+        froms = new long[depth];
+        tos = new long[depth];
+    }
+
+    /**
+     * Enumerates the paths from 'startVertex' to 'endVertex'.
+     * @param startVertex Dense id of the origin vertex.
+     * @param endVertex Dense id of the destination vertex.
+     * @param rules Metric specific parts of the enumeration.
+     */
+    public void run(int startVertex, int endVertex, Rules rules) {
+        firstEdges = null;
+        enumerate(startVertex, endVertex, rules, 0, index.outStart(startVertex), index.outEnd(startVertex),
+                Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Enumerates the paths, that extend a given path with one of the given successors.
+     * @param startVertex Dense id of the origin vertex.
+     * @param endVertex Dense id of the destination vertex.
+     * @param rules Metric specific parts of the enumeration.
+     * @param prefix Indices of the edges of the given path.
+     * @param from Start of the time span of the given path.
+     * @param to End of the time span of the given path.
+     * @param edges Successors of the given path, that are visited. They aren't checked with the rules.
+     * @param low First successor (inclusive).
+     * @param high Last successor (exclusive).
+     */
+    public void run(int startVertex, int endVertex, Rules rules, int[] prefix, long from, long to,
+                    int[] edges, int low, int high) {
+        System.arraycopy(prefix, 0, path, 0, prefix.length);
+        firstEdges = edges;
+        enumerate(startVertex, endVertex, rules, prefix.length, low, high, from, to);
+        firstEdges = null;
+    }
+
+    /**
+     * Returns, if a vertex is part of the current path. Can be used during Rules.found().
+     * @param vertex Dense id of the vertex.
+     * @return True, if the path visits the vertex.
+     */
+    public boolean isOnPath(int vertex) {
+        return vertex >= 0 && (visited[vertex >>> 6] & (1L << vertex)) != 0;
+    }
+
+    /**
+     * Runs the enumeration. Level 0 iterates over the first edges or the edges of the origin vertex, level k > 0 over
+     * the edges of the target of path[base + k - 1].
+     * @param startVertex Dense id of the origin vertex.
+     * @param endVertex Dense id of the destination vertex.
+     * @param rules Metric specific parts of the enumeration.
+     * @param base Length of the given path.
+     * @param low First position of level 0 (inclusive).
+     * @param high Last position of level 0 (exclusive).
+     * @param from Start of the time span of the given path.
+     * @param to End of the time span of the given path.
+     */
+    private void enumerate(int startVertex, int endVertex, Rules rules, int base, int low, int high, long from, long to) {
+        boolean skipsSiblings = rules.skipsSiblings();
+        visit(startVertex);
+        for (int i = 0; i < base; i++) {
+            visit(index.target(path[i]));
+        }
+        cursors[0] = low;
+        ends[0] = high;
+        froms[0] = from;
+        tos[0] = to;
+        int level = 0;
+        int length = base;
+
+        while (level >= 0) {
+            int edge = next(level, length, rules);
+            if (edge < 0) {
+                level--;
+                if (level >= 0) {
+                    leave(index.target(path[--length]), startVertex);
+                }
+                continue;
+            }
+            long newFrom = Math.max(froms[level], index.validFrom(edge));
+            long newTo = Math.min(tos[level], index.validTo(edge));
+            path[length++] = edge;
+            visit(index.target(edge));
+            if (index.target(edge) == endVertex) {
+                rules.found(path, length, newFrom, newTo);
+                leave(index.target(path[--length]), startVertex);
+                if (!skipsSiblings) {
+                    continue;
+                }
+                // The other successors of the path are skipped.
+                level--;
+                if (level >= 0) {
+                    leave(index.target(path[--length]), startVertex);
+                }
+                continue;
+            }
+            if (!rules.explores(path, length, newFrom, newTo)) {
+                leave(index.target(path[--length]), startVertex);
+                continue;
+            }
+            level++;
+            int vertex = index.target(edge);
+            cursors[level] = index.outStart(vertex);
+            ends[level] = index.outEnd(vertex);
+            froms[level] = newFrom;
+            tos[level] = newTo;
+        }
+
+        leave(startVertex, -1);
+        for (int i = 0; i < base; i++) {
+            leave(index.target(path[i]), -1);
+        }
+    }
+
+    /**
+     * Moves the cursor of a level to the next edge, that extends the path.
+     * @param level Level of the enumeration.
+     * @param length Length of the path.
+     * @param rules Metric specific parts of the enumeration.
+     * @return Index of the edge or -1, if the level is exhausted.
+     */
+    private int next(int level, int length, Rules rules) {
+        while (cursors[level] < ends[level]) {
+            int position = cursors[level]++;
+            if (level == 0) {
+                if (firstEdges != null) {
+                    return firstEdges[position];
+                }
+                if (rules.starts(position)) {
+                    return position;
+                }
+            }
+            else if (!isOnPath(index.target(position))
+                    && rules.follows(froms[level], tos[level], path[length - 1], position)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private void visit(int vertex) {
+        visited[vertex >>> 6] |= 1L << vertex;
+    }
+
+    /**
+     * Removes a vertex from the path. The origin vertex stays on the path after a loop.
+     * @param vertex Dense id of the vertex.
+     * @param startVertex Dense id of the origin vertex, or -1 to remove any vertex.
+     */
+    private void leave(int vertex, int startVertex) {
+        if (vertex != startVertex) {
+            visited[vertex >>> 6] &= ~(1L << vertex);
+        }
+    }
+}
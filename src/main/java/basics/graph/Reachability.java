@@ -0,0 +1,147 @@
+package basics.graph;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Backward reachability towards a destination vertex, used to skip edges into dead ends before a path search.
+ * Both passes ignore, that a path can't visit a vertex twice, so they keep every edge, that is part of a path to the
+ * destination vertex. Building the incoming edges costs O(n + m), every pass runs on them in about O(n + m).
+ */
+public class Reachability {
+    private final TemporalGraphIndex index;
+    private final int[] inStart;
+    private final int[] inEdges;
+
+    /**
+     * Constructor for Reachability
+     * @param index Index of the graph.
+     */
+    public Reachability(TemporalGraphIndex index) {
+        this.index = index;
+        inStart = new int[index.vertexCount() + 1];
+        inEdges = new int[index.edgeCount()];
+        for (int e = 0; e < index.edgeCount(); e++) {
+            inStart[index.target(e) + 1]++;
+        }
+        for (int v = 0; v < index.vertexCount(); v++) {
+            inStart[v + 1] += inStart[v];
+        }
+        int[] next = Arrays.copyOf(inStart, index.vertexCount());
+        for (int e = 0; e < index.edgeCount(); e++) {
+            inEdges[next[index.target(e)]++] = e;
+        }
+    }
+
+    /**
+     * Determines the vertices, that reach 'endVertex' over any edges, regardless of their times.
+     * @param endVertex Dense id of the destination vertex.
+     * @return Flags by dense id, true if the vertex reaches 'endVertex'.
+     */
+    public boolean[] reaching(int endVertex) {
+        boolean[] reaching = new boolean[index.vertexCount()];
+        int[] queue = new int[index.vertexCount()];
+        reaching[endVertex] = true;
+        queue[0] = endVertex;
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            int vertex = queue[head];
+            for (int i = inStart[vertex]; i < inStart[vertex + 1]; i++) {
+                int source = index.source(inEdges[i]);
+                if (!reaching[source]) {
+                    reaching[source] = true;
+                    queue[tail++] = source;
+                }
+            }
+        }
+        return reaching;
+    }
+
+    /**
+     * Determines for every vertex the latest time, at which an edge leaves it on a time-respecting path to 'endVertex'.
+     * An edge can follow another edge, if it starts at or after the end of the other edge. So an edge e into vertex v
+     * can be continued to 'endVertex', if e.validTo is lower or equal to the result of v.
+     * @param endVertex Dense id of the destination vertex.
+     * @return Latest departures by dense id. Long.MAX_VALUE for 'endVertex', Long.MIN_VALUE for vertices, that don't
+     * reach 'endVertex'.
+     */
+    public long[] latestDepartures(int endVertex) {
+        long[] latest = new long[index.vertexCount()];
+        Arrays.fill(latest, Long.MIN_VALUE);
+        latest[endVertex] = Long.MAX_VALUE;
+        // A vertex is queued again, whenever its latest departure grows. It can only take the times of its edges.
+        int[] queue = new int[index.vertexCount()];
+        boolean[] queued = new boolean[index.vertexCount()];
+        queue[0] = endVertex;
+        queued[endVertex] = true;
+        int head = 0;
+        int size = 1;
+        while (size > 0) {
+            int vertex = queue[head];
+            queued[vertex] = false;
+            head = (head + 1) % queue.length;
+            size--;
+            for (int i = inStart[vertex]; i < inStart[vertex + 1]; i++) {
+                int edge = inEdges[i];
+                int source = index.source(edge);
+                if (source != endVertex && index.validTo(edge) <= latest[vertex] && index.validFrom(edge) > latest[source]) {
+                    latest[source] = index.validFrom(edge);
+                    if (!queued[source]) {
+                        queued[source] = true;
+                        queue[(head + size) % queue.length] = source;
+                        size++;
+                    }
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Determines for every vertex an upper bound of the time, at which a path from it arrives at 'endVertex': the highest
+     * valid-to-time of the edges into 'endVertex', that are reached without passing 'endVertex'. The times of the other
+     * edges are ignored. The sources of the edges are visited from the highest arrival down, so every vertex is
+     * settled by the first search, that reaches it.
+     * @param endVertex Dense id of the destination vertex.
+     * @return Latest arrivals by dense id. Long.MIN_VALUE for 'endVertex' and vertices, that don't reach 'endVertex'.
+     */
+    public long[] latestArrivals(int endVertex) {
+        long[] latest = new long[index.vertexCount()];
+        Arrays.fill(latest, Long.MIN_VALUE);
+        for (int i = inStart[endVertex]; i < inStart[endVertex + 1]; i++) {
+            int source = index.source(inEdges[i]);
+            if (source != endVertex) {
+                latest[source] = Math.max(latest[source], index.validTo(inEdges[i]));
+            }
+        }
+        Integer[] seeds = IntStream.range(0, index.vertexCount())
+                .filter(v -> latest[v] != Long.MIN_VALUE)
+                .boxed()
+                .toArray(Integer[]::new);
+        Arrays.sort(seeds, (a, b) -> Long.compare(latest[b], latest[a]));
+
+        boolean[] settled = new boolean[index.vertexCount()];
+        settled[endVertex] = true;
+        int[] queue = new int[index.vertexCount()];
+        for (int seed : seeds) {
+            if (settled[seed]) {
+                continue;
+            }
+            settled[seed] = true;
+            queue[0] = seed;
+            int tail = 1;
+            for (int head = 0; head < tail; head++) {
+                int vertex = queue[head];
+                for (int i = inStart[vertex]; i < inStart[vertex + 1]; i++) {
+                    int source = index.source(inEdges[i]);
+                    if (!settled[source]) {
+                        settled[source] = true;
+                        latest[source] = latest[seed];
+                        queue[tail++] = source;
+                    }
+                }
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,214 @@
+package basics.graph;
+
+import importing.api.IImporter;
+import org.gradoop.common.model.impl.id.GradoopId;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
+import org.gradoop.temporal.model.impl.pojo.TemporalVertex;
+
+import java.util.*;
+
+/**
+ * Immutable index of a temporal graph. The vertices are mapped to dense int ids and the edges are stored in a
+ * compressed sparse row (CSR) layout: the outgoing edges of a vertex are consecutive and keep the order of the edge list,
+ * because the depth-first searches of the metrics depend on the order, in which successors are visited.
+ * Edges are addressed by their position in this layout. Source, target and validity are stored in primitive columns.
+ * The index is built from an EdgeStore, which must not be changed afterwards.
+ */
+public class TemporalGraphIndex {
+    private final EdgeStore store;
+    private final int[] offsets;
+    private final int[] sources;
+    private final int[] targets;
+    private final long[] validFrom;
+    private final long[] validTo;
+    private final int[] storeEdges;
+
+    /**
+     * Constructor for TemporalGraphIndex
+     * @param edges Edges of the graph. Vertices are taken from the edges.
+     */
+    public TemporalGraphIndex(List<TemporalEdge> edges) {
+        this(Collections.emptyList(), edges);
+    }
+
+    /**
+     * Constructor for TemporalGraphIndex
+     * @param vertices Vertices of the graph. They get the first ids in the given order, also if they have no edges.
+     * @param edges Edges of the graph. Vertices, that are only known from the edges, get the following ids.
+     */
+    public TemporalGraphIndex(Collection<TemporalVertex> vertices, List<TemporalEdge> edges) {
+        this(EdgeStore.of(vertices, edges));
+    }
+
+    /**
+     * Constructor for TemporalGraphIndex. The vertices keep the dense ids of the store.
+     * @param store Columnar store of the graph.
+     */
+    public TemporalGraphIndex(EdgeStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("Store can't be null.");
+        }
+        this.store = store;
+        int amount = store.edgeCount();
+        int vertexCount = store.vertexCount();
+
+        // Stable counting sort by source.
+        offsets = new int[vertexCount + 1];
+        for (int i = 0; i < amount; i++) {
+            offsets[store.source(i) + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] position = Arrays.copyOf(offsets, vertexCount);
+        sources = new int[amount];
+        targets = new int[amount];
+        validFrom = new long[amount];
+        validTo = new long[amount];
+        storeEdges = new int[amount];
+        for (int i = 0; i < amount; i++) {
+            int e = position[store.source(i)]++;
+            sources[e] = store.source(i);
+            targets[e] = store.target(i);
+            validFrom[e] = store.validFrom(i);
+            validTo[e] = store.validTo(i);
+            storeEdges[e] = i;
+        }
+    }
+
+    /**
+     * Creates an index of the graph of an importer.
+     * @param importer Importer of the graph.
+     * @return TemporalGraphIndex
+     */
+    public static TemporalGraphIndex of(IImporter importer) {
+        return new TemporalGraphIndex(importer.getVertices(), importer.getEdges());
+    }
+
+    /**
+     * Returns the amount of vertices.
+     * @return Amount of vertices as int.
+     */
+    public int vertexCount() {
+        return store.vertexCount();
+    }
+
+    /**
+     * Returns the amount of edges.
+     * @return Amount of edges as int.
+     */
+    public int edgeCount() {
+        return sources.length;
+    }
+
+    /**
+     * Returns the dense id of a vertex.
+     * @param id GradoopId of the vertex.
+     * @return Dense id or -1, if the vertex isn't part of the graph.
+     */
+    public int vertexId(GradoopId id) {
+        return store.vertexId(id);
+    }
+
+    /**
+     * Returns the GradoopId of a vertex.
+     * @param vertex Dense id of the vertex.
+     * @return GradoopId
+     */
+    public GradoopId vertex(int vertex) {
+        return store.vertex(vertex);
+    }
+
+    /**
+     * Returns the first outgoing edge of a vertex.
+     * @param vertex Dense id of the vertex.
+     * @return Index of the edge.
+     */
+    public int outStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    /**
+     * Returns the end of the outgoing edges of a vertex (exclusive).
+     * @param vertex Dense id of the vertex.
+     * @return Index after the last outgoing edge.
+     */
+    public int outEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    /**
+     * Returns the outgoing edges of a vertex.
+     * @param vertex Dense id of the vertex.
+     * @return List of edge indices.
+     */
+    public List<Integer> outEdges(int vertex) {
+        List<Integer> list = new ArrayList<>(offsets[vertex + 1] - offsets[vertex]);
+        for (int e = offsets[vertex]; e < offsets[vertex + 1]; e++) {
+            list.add(e);
+        }
+        return list;
+    }
+
+    /**
+     * Returns the dense id of the source vertex of an edge.
+     * @param edge Index of the edge.
+     * @return Dense id of the vertex.
+     */
+    public int source(int edge) {
+        return sources[edge];
+    }
+
+    /**
+     * Returns the dense id of the target vertex of an edge.
+     * @param edge Index of the edge.
+     * @return Dense id of the vertex.
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the valid-from-time of an edge.
+     * @param edge Index of the edge.
+     * @return Valid-from-time as long.
+     */
+    public long validFrom(int edge) {
+        return validFrom[edge];
+    }
+
+    /**
+     * Returns the valid-to-time of an edge.
+     * @param edge Index of the edge.
+     * @return Valid-to-time as long.
+     */
+    public long validTo(int edge) {
+        return validTo[edge];
+    }
+
+    /**
+     * Returns the edge as TemporalEdge, see EdgeStore.edge().
+     * @param edge Index of the edge.
+     * @return TemporalEdge
+     */
+    public TemporalEdge edge(int edge) {
+        return store.edge(storeEdges[edge]);
+    }
+
+    /**
+     * Returns the position of an edge in the store.
+     * @param edge Index of the edge.
+     * @return Index of the edge in the store.
+     */
+    public int storeEdge(int edge) {
+        return storeEdges[edge];
+    }
+
+    /**
+     * Returns the store of the graph.
+     * @return EdgeStore
+     */
+    public EdgeStore store() {
+        return store;
+    }
+}
@@ -0,0 +1,33 @@
+package export;
+
+import basics.diagram.Diagram;
+import basics.diagram.DiagramCodec;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saves a Diagram as a binary file and loads it again. The format is described in DiagramCodec.
+ */
+public class BinaryExporter {
+    private String filepath;
+
+    public BinaryExporter(String filepath) {
+        this.filepath = filepath;
+    }
+
+    public void save(Diagram diagram) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DiagramCodec.write(diagram, channel);
+        }
+    }
+
+    public <X extends Number & Comparable, Y extends Comparable> Diagram<X, Y> load() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+            return DiagramCodec.read(channel);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package importing;
 
+import basics.graph.EdgeStore;
 import importing.api.IImporter;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.gradoop.temporal.model.impl.pojo.*;
 
 import java.io.*;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Importer for csv-files.
@@ -45,6 +48,29 @@ public class BikeGraphLayout implements IImporter {
      * @param file File to read
      */
     public void load(File file) {
+        read(file, line -> parseLine(line, ","));
+    }
+
+    /**
+     * Reads the trips of a file into a columnar store without creating TemporalVertex and TemporalEdge objects.
+     * The stations get their names as labels, the properties of stations and trips are skipped.
+     * @param file File to read
+     * @return EdgeStore with the stations and trips of the file.
+     */
+    public EdgeStore loadEdgeStore(File file) {
+        EdgeStore store = new EdgeStore();
+        HashMap<Long, Integer> stations = new HashMap<>();
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        read(file, line -> parseLine(line, ",", store, stations, simpleDateFormat));
+        return store;
+    }
+
+    /**
+     * Reads the header and passes the other lines of a file to a parser.
+     * @param file File to read
+     * @param parser Parser of a non-header line
+     */
+    private void read(File file, Consumer<String> parser) {
         try {
             reader = new BufferedReader(new FileReader(file));
             String line = reader.readLine();
@@ -57,7 +83,7 @@ public class BikeGraphLayout implements IImporter {
                 line = reader.readLine();
                 if (line != null) {
                     try {
-                        parseLine(line, ",");
+                        parser.accept(line);
                     }
                     catch (Exception e) {
                         System.out.println("Error in line " + lineCount + ".");
@@ -208,6 +234,51 @@ public class BikeGraphLayout implements IImporter {
         }
     }
 
+    /**
+     * Parses a non-header line of a cvs file into a columnar store.
+     * @param line non-header line
+     * @param delim delimiter of columns
+     * @param store Store for the stations and trips
+     * @param stations Dense ids of the stations by their station id
+     * @param format Format of the start and stop times
+     */
+    private void parseLine(String line, String delim, EdgeStore store, Map<Long, Integer> stations, SimpleDateFormat format) {
+        String[] fragments = line.split(delim);
+        if (fragments[START_STATION_ID].contains("NULL") || fragments[END_STATION_ID].contains("NULL")) {
+            return;
+        }
+
+        int source = station(store, stations, Long.valueOf(fragments[START_STATION_ID]), fragments[START_STATION_NAME]);
+        int target = station(store, stations, Long.valueOf(fragments[END_STATION_ID]), fragments[END_STATION_NAME]);
+        long validFrom;
+        long validTo;
+        try {
+            validFrom = format.parse(fragments[START_TIME].replace("\"", "")).getTime() * 1000;
+            validTo = format.parse(fragments[STOP_TIME].replace("\"", "")).getTime() * 1000;
+        }
+        catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid start or stop time.", e);
+        }
+        store.addEdge(source, target, validFrom, validTo, null);
+    }
+
+    /**
+     * Returns the dense id of a station and adds the station to the store, if it's new.
+     * @param store Store for the stations
+     * @param stations Dense ids of the stations by their station id
+     * @param stationId Id of the station in the file
+     * @param name Name of the station
+     * @return Dense id of the station
+     */
+    private static int station(EdgeStore store, Map<Long, Integer> stations, Long stationId, String name) {
+        Integer vertex = stations.get(stationId);
+        if (vertex == null) {
+            vertex = store.addVertex(name);
+            stations.put(stationId, vertex);
+        }
+        return vertex;
+    }
+
     /**
      * Main class for testing.
      * @param args
@@ -1,5 +1,6 @@
 package importing;
 
+import basics.graph.EdgeStore;
 import importing.api.IImporter;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
@@ -12,6 +13,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.function.Consumer;
 
 public class TestCSVLayout implements IImporter {
     public static final int SOURCE_NODE_LABEL = 0;
@@ -32,6 +34,26 @@ public class TestCSVLayout implements IImporter {
      * @param file File to read
      */
     public void load(File file) {
+        read(file, line -> parseLine(line, ";"));
+    }
+
+    /**
+     * Reads the content of a file into a columnar store without creating TemporalVertex and TemporalEdge objects.
+     * @param file File to read
+     * @return EdgeStore with the vertices and edges of the file.
+     */
+    public EdgeStore loadEdgeStore(File file) {
+        EdgeStore store = new EdgeStore();
+        read(file, line -> parseLine(line, ";", store));
+        return store;
+    }
+
+    /**
+     * Reads the header and passes the other lines of a file to a parser.
+     * @param file File to read
+     * @param parser Parser of a non-header line
+     */
+    private void read(File file, Consumer<String> parser) {
         try {
             reader = new BufferedReader(new FileReader(file));
             String line = reader.readLine();
@@ -44,7 +66,7 @@ public class TestCSVLayout implements IImporter {
                 line = reader.readLine();
                 if (line != null) {
                     try {
-                        parseLine(line, ";");
+                        parser.accept(line);
                     }
                     catch (Exception e) {
                         System.out.println("Error in line " + lineCount + ".");
@@ -115,6 +137,30 @@ public class TestCSVLayout implements IImporter {
         edges.add(edge);
     }
 
+    /**
+     * Parses a non-header line of a cvs file into a columnar store.
+     * @param line non-header line
+     * @param delim delimiter of columns
+     * @param store Store for the vertices and edges
+     */
+    private void parseLine(String line, String delim, EdgeStore store) {
+        String[] fragments = line.split(delim);
+        if (fragments.length != 5) {
+            return;
+        }
+
+        int source = store.findVertex(fragments[SOURCE_NODE_LABEL]);
+        if (source < 0) {
+            source = store.addVertex(fragments[SOURCE_NODE_LABEL]);
+        }
+        int target = store.findVertex(fragments[TARGET_NODE_LABEL]);
+        if (target < 0) {
+            target = store.addVertex(fragments[TARGET_NODE_LABEL]);
+        }
+        store.addEdge(source, target, Long.parseLong(fragments[VALID_FROM]), Long.parseLong(fragments[VALID_TO]),
+                fragments[EDGE_LABEL]);
+    }
+
     public static void main(String[] args) {
         TestCSVLayout layout = new TestCSVLayout();
         layout.load(new File("testgraphs/50nodes1000edges.csv"));
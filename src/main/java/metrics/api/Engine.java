@@ -0,0 +1,39 @@
+package metrics.api;
+
+/**
+ * Algorithm, that a metric uses to evaluate the paths between two vertices.
+ */
+public enum Engine {
+    /**
+     * Depth-first enumeration of the paths. Supported by all metrics.
+     */
+    PATHS,
+    /**
+     * Level-synchronous breadth-first search over labels of a vertex and a validity interval. Every point in time of a
+     * vertex is settled by the first level, that reaches it, so the runtime is polynomial. Supported by HopCount.
+     */
+    LABELS,
+    /**
+     * Sweep over the start and end times of the edges. The valid edges don't change between two consecutive times, so
+     * every elementary interval is evaluated as a static snapshot and the runtime depends on the amount of times
+     * instead of the amount of paths. Supported by HopCount and TemporalBetweennessCentrality.
+     */
+    SWEEP,
+    /**
+     * Sweep over the start and end times of the edges, that keeps the hop distances from the origin vertex up to date
+     * on every added or removed edge, instead of searching every snapshot again. Supported by HopCount.
+     */
+    DYNAMIC,
+    /**
+     * Single scan over the edges in the order of their start times, that keeps the earliest departure from the origin
+     * vertex, with which every vertex can be reached. Runs in O(m log m). Supported by TemporalConnectedness.
+     */
+    SCAN,
+    /**
+     * Depth-first enumeration of the paths, that keeps a Pareto frontier of the time spans and costs of the partial
+     * paths per vertex. A partial path is dropped, if an earlier one reached the same vertex with a wider or equal time
+     * span and a lower or equal cost. Supported by HopCount and TemporalShortestPath. TemporalShortestPath only drops
+     * partial paths over the same vertices with the same time span.
+     */
+    PARETO
+}
@@ -1,6 +1,7 @@
 package metrics.api;
 
 import basics.diagram.Diagram;
+import basics.graph.EdgeStore;
 import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
 
 import java.util.List;
@@ -18,6 +19,13 @@ public interface IMetric<T extends /*Number &*/ Comparable> {
      */
     public void calculate(List<TemporalEdge> edges);
 
+    /**
+     * Determines the metric for a columnar store of edges, e.g. a whole graph, without TemporalEdge objects.
+     * The edges of the store aren't kept for following calls of calculate(TemporalEdge).
+     * @param edges Store of edges
+     */
+    public void calculate(EdgeStore edges);
+
     /**
      * Returns the result of the metric.
      * @return Result as a Diagram
@@ -0,0 +1,223 @@
+package metrics.impl.HopCount;
+
+import basics.diagram.IntIntervals;
+import basics.graph.EventSweep;
+import basics.graph.TemporalGraphIndex;
+
+import java.util.Arrays;
+
+/**
+ * Event sweep, that maintains the hop distances from the origin vertex while edges become valid or invalid, instead of
+ * searching every snapshot again.
+ * A new edge can only lower distances: they are propagated breadth-first from its target.
+ * A removed edge can only raise distances of vertices, that lost all their shortest path predecessors. These vertices
+ * are collected with a count of the remaining predecessors, reset and settled again from their unaffected neighbours.
+ * Events, that don't touch a shortest path, cost O(1) plus the degree of the edge's target.
+ */
+final class DynamicSearch implements EventSweep.Listener {
+    private static final int INFINITE = Integer.MAX_VALUE;
+
+    private final TemporalGraphIndex index;
+    private final EventSweep sweep;
+    private final int startVertex;
+    private final int endVertex;
+    private final IntIntervals result;
+    private final int[] distances;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+    private final int[] queue;
+    private final int[] supports;
+    private final int[] touched;
+    private final boolean[] affected;
+    private int round = 0;
+
+    private DynamicSearch(TemporalGraphIndex index, int startVertex, int endVertex, IntIntervals result) {
+        this.index = index;
+        this.sweep = new EventSweep(index);
+        this.startVertex = startVertex;
+        this.endVertex = endVertex;
+        this.result = result;
+        int vertexCount = index.vertexCount();
+        distances = new int[vertexCount];
+        Arrays.fill(distances, INFINITE);
+        distances[startVertex] = 0;
+        queue = new int[vertexCount];
+        supports = new int[vertexCount];
+        touched = new int[vertexCount];
+        affected = new boolean[vertexCount];
+
+        // Incoming edges of every vertex, grouped by target.
+        inOffsets = new int[vertexCount + 1];
+        for (int e = 0; e < index.edgeCount(); e++) {
+            inOffsets[index.target(e) + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] position = Arrays.copyOf(inOffsets, vertexCount);
+        inEdges = new int[index.edgeCount()];
+        for (int e = 0; e < index.edgeCount(); e++) {
+            inEdges[position[index.target(e)]++] = e;
+        }
+    }
+
+    /**
+     * Determines the lowest hop counts from 'startVertex' to 'endVertex'. The result contains disjoint intervals.
+     * @param index Index of the graph.
+     * @param startVertex Dense id of the origin vertex.
+     * @param endVertex Dense id of the destination vertex.
+     * @param result Intervals, to which the hop counts are added.
+     */
+    static void run(TemporalGraphIndex index, int startVertex, int endVertex, IntIntervals result) {
+        DynamicSearch search = new DynamicSearch(index, startVertex, endVertex, result);
+        search.sweep.run(search);
+    }
+
+    @Override
+    public void added(int edge) {
+        int source = index.source(edge);
+        int target = index.target(edge);
+        if (distances[source] == INFINITE || distances[source] + 1 >= distances[target]) {
+            return;
+        }
+        distances[target] = distances[source] + 1;
+        queue[0] = target;
+        for (int head = 0, tail = 1; head < tail; head++) {
+            int vertex = queue[head];
+            for (int e = index.outStart(vertex); e < index.outEnd(vertex); e++) {
+                int next = index.target(e);
+                if (sweep.isValid(e) && distances[vertex] + 1 < distances[next]) {
+                    distances[next] = distances[vertex] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void removed(int edge) {
+        int source = index.source(edge);
+        int target = index.target(edge);
+        if (target == startVertex || distances[source] == INFINITE || distances[source] + 1 != distances[target]) {
+            return;
+        }
+        if (supported(target)) {
+            return;
+        }
+        round++;
+        support(target);
+
+        // Collect the vertices, that lost all shortest path predecessors.
+        affected[target] = true;
+        queue[0] = target;
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            int vertex = queue[head];
+            for (int e = index.outStart(vertex); e < index.outEnd(vertex); e++) {
+                int next = index.target(e);
+                if (sweep.isValid(e) && !affected[next] && next != startVertex
+                        && distances[next] == distances[vertex] + 1) {
+                    if (touched[next] != round) {
+                        support(next);
+                    }
+                    if (--supports[next] == 0) {
+                        affected[next] = true;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        // Settle the affected vertices again, starting with the best distance over unaffected predecessors.
+        long[] candidates = new long[tail];
+        int amount = 0;
+        for (int i = 0; i < tail; i++) {
+            int vertex = queue[i];
+            int best = INFINITE;
+            for (int k = inOffsets[vertex]; k < inOffsets[vertex + 1]; k++) {
+                int e = inEdges[k];
+                int predecessor = index.source(e);
+                if (sweep.isValid(e) && !affected[predecessor] && distances[predecessor] != INFINITE) {
+                    best = Math.min(best, distances[predecessor] + 1);
+                }
+            }
+            distances[vertex] = INFINITE;
+            if (best != INFINITE) {
+                candidates[amount++] = ((long)best << 32) | vertex;
+            }
+        }
+        Arrays.sort(candidates, 0, amount);
+        for (int i = 0; i < tail; i++) {
+            affected[queue[i]] = false;
+        }
+
+        // Unit weights: merging the sorted candidates with a FIFO queue yields the vertices in order of distance.
+        int head = 0;
+        tail = 0;
+        int next = 0;
+        while (next < amount || head < tail) {
+            int vertex;
+            int distance;
+            if (head >= tail || (next < amount && (int)(candidates[next] >>> 32) <= distances[queue[head]])) {
+                vertex = (int)candidates[next];
+                distance = (int)(candidates[next++] >>> 32);
+                if (distance >= distances[vertex]) {
+                    continue;
+                }
+                distances[vertex] = distance;
+            }
+            else {
+                vertex = queue[head++];
+            }
+            for (int e = index.outStart(vertex); e < index.outEnd(vertex); e++) {
+                int successor = index.target(e);
+                if (sweep.isValid(e) && distances[vertex] + 1 < distances[successor]) {
+                    distances[successor] = distances[vertex] + 1;
+                    queue[tail++] = successor;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void snapshot(long from, long to) {
+        if (distances[endVertex] != INFINITE) {
+            result.add(from, to, distances[endVertex]);
+        }
+    }
+
+    /**
+     * Checks, if a vertex has a valid incoming edge from a predecessor on a shortest path.
+     * @param vertex Dense id of the vertex.
+     * @return True, if there is such an edge.
+     */
+    private boolean supported(int vertex) {
+        for (int k = inOffsets[vertex]; k < inOffsets[vertex + 1]; k++) {
+            int e = inEdges[k];
+            int predecessor = index.source(e);
+            if (sweep.isValid(e) && distances[predecessor] != INFINITE && distances[predecessor] + 1 == distances[vertex]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the valid incoming edges of a vertex, that come from a predecessor on a shortest path.
+     * @param vertex Dense id of the vertex.
+     * @return Amount of edges.
+     */
+    private int support(int vertex) {
+        int count = 0;
+        for (int k = inOffsets[vertex]; k < inOffsets[vertex + 1]; k++) {
+            int e = inEdges[k];
+            int predecessor = index.source(e);
+            if (sweep.isValid(e) && distances[predecessor] != INFINITE && distances[predecessor] + 1 == distances[vertex]) {
+                count++;
+            }
+        }
+        supports[vertex] = count;
+        touched[vertex] = round;
+        return count;
+    }
+}
@@ -1,11 +1,20 @@
 package metrics.impl.HopCount;
 
-import basics.RecursiveAction;
-import basics.StackItem;
+import basics.diagram.Compaction;
 import basics.diagram.Diagram;
+import basics.diagram.IntDiagram;
+import basics.diagram.IntIntervals;
+import basics.graph.EdgeStore;
+import basics.graph.IntervalIndex;
+import basics.graph.ParallelPathSearch;
+import basics.graph.ParetoFrontier;
+import basics.graph.PathSearch;
+import basics.graph.Reachability;
+import basics.graph.TemporalGraphIndex;
 import export.CSVExporter;
 import export.ImageExporter;
 import importing.TestDataImporter;
+import metrics.api.Engine;
 import metrics.api.IMetric;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.gradoop.common.model.impl.id.GradoopId;
@@ -15,7 +24,9 @@ import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of the temporalized Hop Count from "Classification of graph metrics" by Javier Martín Hernández and Piet Van Mieghem.
@@ -24,8 +35,15 @@ import java.util.stream.Collectors;
 public class HopCount implements IMetric<Integer> {
     private final GradoopId startId;
     private final GradoopId endId;
-    private final ArrayList<TemporalEdge> oldEdges = new ArrayList<>();
-    private Diagram<Long, Integer> diagram = new Diagram<>(null);
+    private final IntervalIndex<TemporalEdge> oldEdges = new IntervalIndex<>();
+    private IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+    private volatile IntDiagram published = diagram.snapshot();
+    private volatile Tuple2<IntDiagram, Diagram<Long, Integer>> data = null;
+    private final IntIntervals intervals = new IntIntervals();
+    private long resolution = 0;
+    private Compaction compaction = null;
+    private Engine engine = Engine.PATHS;
+    private ForkJoinPool pool = null;
 
     /**
      * Constructor of Hop Count
@@ -47,20 +65,92 @@ public class HopCount implements IMetric<Integer> {
     @Override
     public void calculate(TemporalEdge edge) {
         determineHopCounts(edge);
-        this.oldEdges.add(edge);
+        this.oldEdges.insert(edge.getValidFrom(), edge.getValidTo(), edge);
+        this.published = this.diagram.snapshot();
     }
 
     @Override
     public void calculate(List<TemporalEdge> edges) {
-        this.diagram = new Diagram<>(null);
+        this.diagram = new IntDiagram(IntDiagram.NULL);
         this.oldEdges.clear();
-        this.oldEdges.addAll(edges);
-        determine(edges);
+        for (TemporalEdge edge : edges) {
+            this.oldEdges.insert(edge.getValidFrom(), edge.getValidTo(), edge);
+        }
+        determine(new TemporalGraphIndex(edges));
+        this.published = this.diagram.snapshot();
+    }
+
+    @Override
+    public void calculate(EdgeStore edges) {
+        this.diagram = new IntDiagram(IntDiagram.NULL);
+        this.oldEdges.clear();
+        determine(new TemporalGraphIndex(edges));
+        this.published = this.diagram.snapshot();
     }
 
     @Override
     public Diagram<Long, Integer> getData() {
-        return this.diagram;
+        IntDiagram current = this.published;
+        Tuple2<IntDiagram, Diagram<Long, Integer>> cached = this.data;
+        if (cached == null || cached.f0 != current) {
+            cached = new Tuple2<>(current, current.toDiagram().snapshot());
+            this.data = cached;
+        }
+        return cached.f1;
+    }
+
+    /**
+     * Returns the result of the metric without boxing.
+     * @return Result as an IntDiagram
+     */
+    public IntDiagram getPrimitiveData() {
+        return this.published;
+    }
+
+    /**
+     * Downsamples the result to a time resolution. The current result is downsampled immediately, new hop counts
+     * after every flush of the buffer.
+     * @param resolution Width of the time buckets.
+     * @param policy How the hop counts within a bucket are combined, e.g. Compaction.MIN.
+     */
+    public void setCompaction(long resolution, Compaction policy) {
+        this.diagram.downsample(resolution, policy);
+        this.resolution = resolution;
+        this.compaction = policy;
+        this.published = this.diagram.snapshot();
+    }
+
+    /**
+     * Selects the algorithm for the following calculations.
+     * Engine.LABELS, Engine.SWEEP and Engine.DYNAMIC find the lowest hop count for every point in time in polynomial
+     * time. Engine.DYNAMIC is the fastest one on graphs, where most edge changes don't touch the shortest paths.
+     * Engine.PATHS stops at the first path, that reaches the destination on a level, so it can miss shorter paths over
+     * later siblings. Engine.PARETO visits all successors, but drops partial paths with more or equal hops and a narrower
+     * or equal time span than an earlier one at the same vertex, so it finds the lowest hop counts like Engine.LABELS.
+     * @param engine Engine.PATHS (default), Engine.LABELS, Engine.SWEEP, Engine.DYNAMIC or Engine.PARETO.
+     */
+    public void setEngine(Engine engine) {
+        if (engine != Engine.PATHS && engine != Engine.LABELS && engine != Engine.SWEEP && engine != Engine.DYNAMIC
+                && engine != Engine.PARETO) {
+            throw new IllegalArgumentException(engine + " is not supported by HopCount.");
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * Sets the amount of threads, on which Engine.PATHS enumerates the paths. The subtrees of the first edges are split
+     * across the threads, the result is the same as with one thread. The threads are kept for all following
+     * calculations of this instance, so streamed edges don't start new threads.
+     * @param parallelism Amount of threads. 1 (default) enumerates the paths on the calling thread.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism has to be at least 1.");
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
     }
 
     /**
@@ -70,7 +160,7 @@ public class HopCount implements IMetric<Integer> {
     private void determineHopCounts(TemporalEdge edge) {
         List<TemporalEdge> edgesInTime = getEdgesBetween(edge.getValidFrom(), edge.getValidTo());
         edgesInTime.add(edge);
-        determine(edgesInTime);
+        determine(new TemporalGraphIndex(edgesInTime));
     }
 
     /**
@@ -80,109 +170,156 @@ public class HopCount implements IMetric<Integer> {
      * @return List of edges
      */
     private List<TemporalEdge> getEdgesBetween(Long start, Long end) {
-        return this.oldEdges.stream().filter(e -> e.getValidFrom() < end && e.getValidTo() > start).collect(Collectors.toList());
+        return this.oldEdges.overlapping(start, end);
     }
 
     /**
      * Determines the Hop Counts between the vertices 'startId' and 'endId'. Stores the result in a Diagram.
-     * @param edges List of edges to work with
+     * @param index Index of the graph to work with
      */
-    private void determine(List<TemporalEdge> edges) {
-        Stack<StackItem<TemporalEdge>> stack = new Stack<>();
-        Stack<TemporalEdge> path = new Stack<>();
-        Stack<GradoopId> nodePath = new Stack<>();
-        RecursiveAction action = RecursiveAction.WENT_DEEPER;
-        stack.push(new StackItem<>(edges.stream().filter(e -> e.getSourceId().equals(startId)).collect(Collectors.toList()), Long.MIN_VALUE, Long.MAX_VALUE));
-        path.push(stack.peek().next());
-        nodePath.push(path.peek().getSourceId());
-        nodePath.push(path.peek().getTargetId());
-
-        while (stack.size() > 0) {
-            if (action == RecursiveAction.WENT_DEEPER || action == RecursiveAction.WENT_NEXT) {
-                if (path.peek().getTargetId().equals(endId)) {
-                    Tuple2<Long, Long> trimmed = trim(path);
-                    if (trimmed.f0 < trimmed.f1) {
-                        diagram.insertMin(trimmed.f0, trimmed.f1, path.size());
-                    }
-
-                    path.pop();
-                    nodePath.pop();
-                    stack.pop();
-                    action = RecursiveAction.WENT_BACK;
-                }
-                else {
-                    TemporalEdge lastEdge = path.peek();
-                    long from = Math.max(stack.peek().getPreviousFrom(), lastEdge.getValidFrom());
-                    long to = Math.min(stack.peek().getPreviousTo(), lastEdge.getValidTo());
-                    List<TemporalEdge> nextSteps = edges.stream().filter(e ->
-                            e.getSourceId().equals(lastEdge.getTargetId())
-                            && e.getValidFrom() < to
-                            && e.getValidTo() > from
-                            && !nodePath.contains(e.getTargetId())
-                    ).collect(Collectors.toList());
-
-                    if (nextSteps.size() <= 0) {
-                        path.pop();
-                        nodePath.pop();
-                        TemporalEdge next = stack.peek().next();
-                        if (next == null) {
-                            stack.pop();
-                            action = RecursiveAction.WENT_BACK;
-                        }
-                        else {
-                            path.push(next);
-                            nodePath.push(path.peek().getTargetId());
-                            action = RecursiveAction.WENT_NEXT;
-                        }
-                    }
-                    else {
-                        stack.push(new StackItem<>(
-                                nextSteps,
-                                from, //Math.min(stack.peek().getPreviousFrom(), path.peek().getValidFrom()),
-                                to //Math.max(stack.peek().getPreviousTo(), path.peek().getValidTo())
-                        ));
-                        path.push(stack.peek().next());
-                        nodePath.push(path.peek().getTargetId());
-                        action = RecursiveAction.WENT_DEEPER;
-                    }
-                }
+    private void determine(TemporalGraphIndex index) {
+        int startVertex = index.vertexId(startId);
+        int endVertex = index.vertexId(endId);
+        if (startVertex < 0 || endVertex < 0 || index.outStart(startVertex) == index.outEnd(startVertex)) {
+            return;
+        }
+        if (engine == Engine.LABELS) {
+            LabelSearch.run(index, startVertex, endVertex, intervals);
+            flush();
+            return;
+        }
+        if (engine == Engine.SWEEP) {
+            SweepSearch.run(index, startVertex, endVertex, intervals);
+            flush();
+            return;
+        }
+        if (engine == Engine.DYNAMIC) {
+            DynamicSearch.run(index, startVertex, endVertex, intervals);
+            flush();
+            return;
+        }
+        boolean[] reaching = new Reachability(index).reaching(endVertex);
+        if (!reaching[startVertex]) {
+            return;
+        }
+        if (pool != null && engine == Engine.PATHS) {
+            determineParallel(index, startVertex, endVertex, reaching);
+            return;
+        }
+        ParetoFrontier frontier = engine == Engine.PARETO ? new ParetoFrontier(index.vertexCount()) : null;
+        IntDiagram lowest = new IntDiagram(IntDiagram.NULL);
+        new PathSearch(index).run(startVertex, endVertex, new PathSearch.Rules() {
+            @Override
+            public boolean starts(int edge) {
+                return reaching[index.target(edge)];
             }
-            else if (action == RecursiveAction.WENT_BACK) {
-                path.pop();
-                nodePath.pop();
-                TemporalEdge next = stack.peek().next();
-                if (next == null) {
-                    stack.pop();
-                }
-                else {
-                    path.push(next);
-                    nodePath.push(path.peek().getTargetId());
-                    action = RecursiveAction.WENT_NEXT;
+
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return index.validFrom(edge) < to && index.validTo(edge) > from && reaching[index.target(edge)];
+            }
+
+            @Override
+            public boolean explores(int[] path, int length, long from, long to) {
+                // Longer paths have more hops and a narrower time span, so they can only lower uncovered points.
+                return from < to && !isCovered(lowest, from, to, length + 1) && !isCovered(diagram, from, to, length + 1)
+                        && (frontier == null || frontier.add(index.target(path[length - 1]), from, to, length));
+            }
+
+            @Override
+            public boolean skipsSiblings() {
+                return frontier == null;
+            }
+
+            @Override
+            public void found(int[] path, int length, long from, long to) {
+                if (from < to && !isCovered(lowest, from, to, length)) {
+                    lowest.insertMin(from, to, length);
                 }
             }
-        }
+        });
+        merge(lowest);
+    }
+
+    /**
+     * Checks, if a diagram already has a hop count of at most 'hops' at every point of a time span.
+     * @param diagram Diagram to check.
+     * @param from Start of the time span (inclusive).
+     * @param to End of the time span (exclusive).
+     * @param hops Hop count of a path.
+     * @return True, if paths with at least 'hops' hops can't lower the diagram within the time span.
+     */
+    private static boolean isCovered(IntDiagram diagram, long from, long to, int hops) {
+        int bound = diagram.upperBound(from, to);
+        return bound != IntDiagram.NULL && bound <= hops;
     }
 
     /**
-     * Determines the timeframe in which a stack of edges occurs.
-     * @param stack Stack of edges
-     * @return Tuple with two Longs. The first number is the start time and the second number is the end time.
+     * Enumerates the paths like determine() on the threads of 'pool'. Every thread collects its hop counts in its own
+     * diagram, the diagrams are merged at the end. Like determine(), a thread skips paths, that can't lower its own
+     * diagram or the diagram of earlier calculations.
+     * @param index Index of the graph to work with
+     * @param startVertex Dense id of the origin vertex
+     * @param endVertex Dense id of the destination vertex
+     * @param reaching Flags by dense id, true if the vertex reaches the destination vertex
      */
-    private Tuple2<Long, Long> trim(Stack<TemporalEdge> stack) {
-        long start = 0, end = 0;
-        boolean init = true;
-        for (TemporalEdge next : stack) {
-            if (init) {
-                start = next.getValidFrom();
-                end = next.getValidTo();
-                init = false;
-            } else {
-                start = Math.max(start, next.getValidFrom());
-                end = Math.min(end, next.getValidTo());
+    private void determineParallel(TemporalGraphIndex index, int startVertex, int endVertex, boolean[] reaching) {
+        int[] rootEdges = IntStream.range(index.outStart(startVertex), index.outEnd(startVertex))
+                .filter(e -> reaching[index.target(e)])
+                .toArray();
+        // Hop counts of all paths, that a thread found, across its tasks. They are all part of the merged results.
+        ThreadLocal<IntDiagram> lowest = ThreadLocal.withInitial(() -> new IntDiagram(IntDiagram.NULL));
+        ParallelPathSearch.Rules<IntDiagram> rules = new ParallelPathSearch.Rules<IntDiagram>() {
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return index.validFrom(edge) < to && index.validTo(edge) > from && reaching[index.target(edge)];
+            }
+
+            @Override
+            public boolean explores(int[] path, int length, long from, long to, IntDiagram result) {
+                // The diagram isn't changed before the results of the workers are merged, so it can be read by all.
+                return from < to && !isCovered(lowest.get(), from, to, length + 1)
+                        && !isCovered(diagram, from, to, length + 1);
+            }
+
+            @Override
+            public void found(int[] path, int length, long from, long to, IntDiagram result) {
+                if (from < to && !isCovered(lowest.get(), from, to, length)) {
+                    lowest.get().insertMin(from, to, length);
+                    result.insertMin(from, to, length);
+                }
             }
+        };
+        merge(new ParallelPathSearch<>(index, startVertex, endVertex, rules,
+                () -> new IntDiagram(IntDiagram.NULL),
+                (a, b) -> IntDiagram.merge(a, b, IntDiagram.MIN)
+        ).run(rootEdges, pool));
+    }
+
+    /**
+     * Builds the lower envelope of the buffered hop counts and inserts it into the diagram.
+     */
+    private void flush() {
+        if (intervals.size() <= 0) {
+            return;
         }
+        IntDiagram batch = IntDiagram.buildMin(intervals, IntDiagram.NULL);
+        intervals.clear();
+        merge(batch);
+    }
 
-        return new Tuple2<>(start, end);
+    /**
+     * Merges hop counts into the diagram and downsamples it.
+     * @param batch Lower envelope of new hop counts.
+     */
+    private void merge(IntDiagram batch) {
+        if (batch.size() <= 0) {
+            return;
+        }
+        diagram = diagram.size() <= 0 ? batch : IntDiagram.merge(diagram, batch, IntDiagram.MIN);
+        if (compaction != null) {
+            diagram.downsample(resolution, compaction);
+        }
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,131 @@
+package metrics.impl.HopCount;
+
+import basics.diagram.IntIntervals;
+import basics.graph.TemporalGraphIndex;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Breadth-first search for the lowest hop counts of overlapping paths. A label is a vertex with the validity interval
+ * of the path, that reached it. Level k holds the labels, that were reached with k hops.
+ * For every vertex the points in time, that were reached by an earlier label, are stored. New labels are cut down to
+ * the points in time, that weren't reached yet, because an earlier label of the same vertex dominates them: it has
+ * fewer or equal hops and its interval contains the overlap.
+ * So every point in time of a vertex is settled once and the runtime is polynomial instead of exponential.
+ */
+final class LabelSearch {
+    private final int endVertex;
+    private final IntIntervals result;
+    private final Map<Integer, TreeMap<Long, Long>> reached = new HashMap<>();
+
+    /**
+     * Labels of one level.
+     */
+    private static class Labels {
+        private int[] vertices = new int[16];
+        private long[] from = new long[16];
+        private long[] to = new long[16];
+        private int size = 0;
+
+        private void add(int vertex, long from, long to) {
+            if (size == vertices.length) {
+                vertices = Arrays.copyOf(vertices, size * 2);
+                this.from = Arrays.copyOf(this.from, size * 2);
+                this.to = Arrays.copyOf(this.to, size * 2);
+            }
+            vertices[size] = vertex;
+            this.from[size] = from;
+            this.to[size] = to;
+            size++;
+        }
+    }
+
+    private LabelSearch(int endVertex, IntIntervals result) {
+        this.endVertex = endVertex;
+        this.result = result;
+    }
+
+    /**
+     * Determines the lowest hop counts from 'startVertex' to 'endVertex'. The validity intervals of the edges of a path
+     * have to overlap. The result contains disjoint intervals.
+     * @param index Index of the graph.
+     * @param startVertex Dense id of the origin vertex.
+     * @param endVertex Dense id of the destination vertex.
+     * @param result Intervals, to which the hop counts are added.
+     */
+    static void run(TemporalGraphIndex index, int startVertex, int endVertex, IntIntervals result) {
+        LabelSearch search = new LabelSearch(endVertex, result);
+        Labels current = new Labels();
+        current.add(startVertex, Long.MIN_VALUE, Long.MAX_VALUE);
+        search.intervals(startVertex).put(Long.MIN_VALUE, Long.MAX_VALUE);
+        for (int hops = 1; current.size > 0; hops++) {
+            Labels next = new Labels();
+            for (int i = 0; i < current.size; i++) {
+                int vertex = current.vertices[i];
+                for (int e = index.outStart(vertex); e < index.outEnd(vertex); e++) {
+                    long from = Math.max(current.from[i], index.validFrom(e));
+                    long to = Math.min(current.to[i], index.validTo(e));
+                    if (from < to) {
+                        search.reach(index.target(e), from, to, hops, next);
+                    }
+                }
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Adds the points in time of [from, to), that weren't reached yet, to the next level or to the result.
+     * @param vertex Dense id of the reached vertex.
+     * @param from Start of the validity interval.
+     * @param to End of the validity interval.
+     * @param hops Amount of hops.
+     * @param next Labels of the next level.
+     */
+    private void reach(int vertex, long from, long to, int hops, Labels next) {
+        TreeMap<Long, Long> intervals = intervals(vertex);
+        long start = from;
+        long end = to;
+        Map.Entry<Long, Long> floor = intervals.floorEntry(from);
+        if (floor != null && floor.getValue() >= from) {
+            start = floor.getKey();
+            end = Math.max(end, floor.getValue());
+        }
+        long position = from;
+        Long key = floor != null && floor.getValue() >= from ? floor.getKey() : intervals.ceilingKey(from);
+        while (key != null && key <= to) {
+            long reachedTo = intervals.remove(key);
+            if (position < key) {
+                add(vertex, position, key, hops, next);
+            }
+            position = Math.max(position, reachedTo);
+            end = Math.max(end, reachedTo);
+            key = intervals.ceilingKey(key);
+        }
+        if (position < to) {
+            add(vertex, position, to, hops, next);
+        }
+        intervals.put(start, end);
+    }
+
+    /**
+     * Returns the reached points in time of a vertex as disjoint intervals, mapped from start to end.
+     * @param vertex Dense id of the vertex.
+     * @return Map of intervals.
+     */
+    private TreeMap<Long, Long> intervals(int vertex) {
+        return reached.computeIfAbsent(vertex, v -> new TreeMap<>());
+    }
+
+    private void add(int vertex, long from, long to, int hops, Labels next) {
+        if (vertex == endVertex) {
+            result.add(from, to, hops);
+        }
+        else {
+            next.add(vertex, from, to);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package metrics.impl.HopCount;
+
+import basics.diagram.IntIntervals;
+import basics.graph.EventSweep;
+import basics.graph.TemporalGraphIndex;
+
+/**
+ * Event sweep for the lowest hop counts of overlapping paths. All edges of such a path are valid at every point in
+ * time of its interval, so the hop count within an elementary interval of the sweep is the distance in the static
+ * snapshot of the valid edges. Every snapshot is evaluated with a breadth-first search in O(n + m).
+ */
+final class SweepSearch implements EventSweep.Listener {
+    private final TemporalGraphIndex index;
+    private final EventSweep sweep;
+    private final int startVertex;
+    private final int endVertex;
+    private final IntIntervals result;
+    private final int[] distances;
+    private final int[] visited;
+    private final int[] queue;
+    private int round = 0;
+
+    private SweepSearch(TemporalGraphIndex index, int startVertex, int endVertex, IntIntervals result) {
+        this.index = index;
+        this.sweep = new EventSweep(index);
+        this.startVertex = startVertex;
+        this.endVertex = endVertex;
+        this.result = result;
+        distances = new int[index.vertexCount()];
+        visited = new int[index.vertexCount()];
+        queue = new int[index.vertexCount()];
+    }
+
+    /**
+     * Determines the lowest hop counts from 'startVertex' to 'endVertex'. The result contains disjoint intervals.
+     * @param index Index of the graph.
+     * @param startVertex Dense id of the origin vertex.
+     * @param endVertex Dense id of the destination vertex.
+     * @param result Intervals, to which the hop counts are added.
+     */
+    static void run(TemporalGraphIndex index, int startVertex, int endVertex, IntIntervals result) {
+        SweepSearch search = new SweepSearch(index, startVertex, endVertex, result);
+        search.sweep.run(search);
+    }
+
+    @Override
+    public void snapshot(long from, long to) {
+        // Vertices with visited[v] == round were reached in this snapshot, so the arrays are never cleared.
+        round++;
+        visited[startVertex] = round;
+        distances[startVertex] = 0;
+        queue[0] = startVertex;
+        for (int head = 0, tail = 1; head < tail; head++) {
+            int vertex = queue[head];
+            for (int e = index.outStart(vertex); e < index.outEnd(vertex); e++) {
+                int target = index.target(e);
+                if (sweep.isValid(e) && visited[target] != round) {
+                    visited[target] = round;
+                    distances[target] = distances[vertex] + 1;
+                    if (target == endVertex) {
+                        result.add(from, to, distances[target]);
+                        return;
+                    }
+                    queue[tail++] = target;
+                }
+            }
+        }
+    }
+}
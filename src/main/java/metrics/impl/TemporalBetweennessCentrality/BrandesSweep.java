@@ -0,0 +1,114 @@
+package metrics.impl.TemporalBetweennessCentrality;
+
+import basics.diagram.DoubleDiagram;
+import basics.graph.EventSweep;
+import basics.graph.TemporalGraphIndex;
+
+import java.util.Arrays;
+
+/**
+ * Event sweep for the Temporal Betweenness Centrality of all vertices. All edges of an overlapping path are valid at
+ * every point in time of its interval, so the shortest paths within an elementary interval of the sweep are the
+ * shortest paths of the static snapshot of the valid edges.
+ * Every snapshot is evaluated with the algorithm of Brandes: one breadth-first search per origin vertex counts the
+ * shortest paths, the dependencies are accumulated in reverse order of the search. A snapshot costs O(n * (n + m)) for
+ * all vertices together, instead of one path enumeration per pair and vertex.
+ */
+final class BrandesSweep implements EventSweep.Listener {
+    private final TemporalGraphIndex index;
+    private final EventSweep sweep;
+    private final boolean[] counted;
+    private final double factor;
+    private final DoubleDiagram[] result;
+    private final double[] centrality;
+    private final int[] distances;
+    private final double[] amounts;
+    private final double[] dependencies;
+    private final int[] order;
+
+    private BrandesSweep(TemporalGraphIndex index, boolean[] counted, double factor, DoubleDiagram[] result) {
+        this.index = index;
+        this.sweep = new EventSweep(index);
+        this.counted = counted;
+        this.factor = factor;
+        this.result = result;
+        int vertexCount = index.vertexCount();
+        centrality = new double[vertexCount];
+        distances = new int[vertexCount];
+        amounts = new double[vertexCount];
+        dependencies = new double[vertexCount];
+        order = new int[vertexCount];
+    }
+
+    /**
+     * Determines the Temporal Betweenness Centrality of all vertices.
+     * @param index Index of the graph.
+     * @param counted Dense ids of the vertices, that are origins and destinations of the paths.
+     * @param factor Normalization, with which the sums of the dependencies are multiplied.
+     * @param result Diagrams by dense id, to which the centrality of every snapshot is added.
+     */
+    static void run(TemporalGraphIndex index, boolean[] counted, double factor, DoubleDiagram[] result) {
+        BrandesSweep search = new BrandesSweep(index, counted, factor, result);
+        search.sweep.run(search);
+    }
+
+    @Override
+    public void snapshot(long from, long to) {
+        Arrays.fill(centrality, 0);
+        for (int source = 0; source < index.vertexCount(); source++) {
+            if (counted[source] && index.outStart(source) < index.outEnd(source)) {
+                accumulate(source);
+            }
+        }
+        for (int v = 0; v < index.vertexCount(); v++) {
+            if (counted[v]) {
+                result[v].insertMin(from, to, factor * centrality[v]);
+            }
+        }
+    }
+
+    /**
+     * Adds the dependencies of all vertices on the shortest paths from 'source' to the centrality.
+     * @param source Dense id of the origin vertex.
+     */
+    private void accumulate(int source) {
+        Arrays.fill(distances, -1);
+        distances[source] = 0;
+        amounts[source] = 1;
+        order[0] = source;
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            int vertex = order[head];
+            for (int e = index.outStart(vertex); e < index.outEnd(vertex); e++) {
+                if (!sweep.isValid(e)) {
+                    continue;
+                }
+                int target = index.target(e);
+                if (distances[target] < 0) {
+                    distances[target] = distances[vertex] + 1;
+                    amounts[target] = 0;
+                    order[tail++] = target;
+                }
+                if (distances[target] == distances[vertex] + 1) {
+                    amounts[target] += amounts[vertex];
+                }
+            }
+        }
+
+        // Successors on a shortest path are settled before their predecessors in reverse order of the search.
+        for (int i = tail - 1; i >= 0; i--) {
+            int vertex = order[i];
+            double dependency = 0;
+            for (int e = index.outStart(vertex); e < index.outEnd(vertex); e++) {
+                int target = index.target(e);
+                if (sweep.isValid(e) && distances[target] == distances[vertex] + 1) {
+                    dependency += amounts[vertex] / amounts[target] * ((counted[target] ? 1 : 0) + dependencies[target]);
+                }
+            }
+            dependencies[vertex] = dependency;
+            if (vertex != source) {
+                centrality[vertex] += dependency;
+            }
+        }
+    }
+}
@@ -1,24 +1,31 @@
 package metrics.impl.TemporalBetweennessCentrality;
 
-import basics.StackItem;
 import basics.diagram.Diagram;
+import basics.diagram.DoubleDiagram;
+import basics.graph.EdgeStore;
+import basics.graph.PathSearch;
+import basics.graph.Reachability;
+import basics.graph.TemporalGraphIndex;
 import export.CSVExporter;
 import export.ImageExporter;
 import importing.TestDataImporter;
+import metrics.api.Engine;
 import metrics.api.IMetric;
-import basics.RecursiveAction;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.gradoop.common.model.impl.id.GradoopId;
 import org.gradoop.common.model.impl.pojo.EPGMElement;
 import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
-import org.gradoop.temporal.model.impl.pojo.TemporalElement;
 import org.gradoop.temporal.model.impl.pojo.TemporalVertex;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Stack;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 
 /**
@@ -29,9 +36,13 @@ import java.util.stream.Collectors;
 public class TemporalBetweennessCentrality implements IMetric<Double> {
     private final GradoopId vertexId;
     private final List<TemporalVertex> vertices;
-    private Diagram<Long, Double> result = null;
+    private volatile DoubleDiagram result = null;
+    private volatile Tuple2<DoubleDiagram, Diagram<Long, Double>> data = null;
+    private volatile Map<GradoopId, Diagram<Long, Double>> allData = null;
     private final long from;
     private final long to;
+    private Engine engine = Engine.PATHS;
+    private ForkJoinPool pool = null;
 
     /**
      * Constructor of TemporalBetweennessCentrality
@@ -67,141 +78,273 @@ public class TemporalBetweennessCentrality implements IMetric<Double> {
         // TODO Implement edge-by-edge/streaming calculation.
     }
 
-    // 1 / ((N-1)*(N-2)) * SUMME(Anzahl kürzester Pfade/Anzahl kürzester Pfade durch Knoten)
     @Override
     public void calculate(List<TemporalEdge> edges) {
-        List<TemporalEdge> affectedEdges;
-        if (from < 0 && to < 0) {
-            affectedEdges = edges;
-        }
-        else {
-            affectedEdges = edges.stream().filter(e -> (from < 0 || e.getValidFrom() >= from) && (to < 0 || e.getValidTo() <= to)).collect(Collectors.toList());
-        }
+        calculate(EdgeStore.of(vertices, edges));
+    }
+
+    // 1 / ((N-1)*(N-2)) * SUMME(Anzahl kürzester Pfade/Anzahl kürzester Pfade durch Knoten)
+    @Override
+    public void calculate(EdgeStore edges) {
+        EdgeStore affectedEdges = from < 0 && to < 0 ? edges : select(edges);
 
         double f1 = 1 / ((double)(vertices.size() - 1) * (double)(vertices.size() - 2));
         double f2 = 0;
 
+        TemporalGraphIndex index = new TemporalGraphIndex(affectedEdges);
+        if (engine == Engine.SWEEP) {
+            determineAll(index, f1);
+            return;
+        }
+        allData = null;
+        List<int[]> pairs = new ArrayList<>();
         for (TemporalVertex sourceVertex: vertices) {
             for (TemporalVertex targetVertex: vertices) {
                 if (!sourceVertex.getId().equals(targetVertex.getId())
                         && !sourceVertex.getId().equals(vertexId)
                         && !targetVertex.getId().equals(vertexId)
                 ) {
-                    Tuple2<Long, Long> result = determine(affectedEdges, sourceVertex.getId(), targetVertex.getId());
-                    if (result.f1 != 0) {
-                        f2 += result.f0.doubleValue() / result.f1.doubleValue();
+                    int startVertex = index.vertexId(sourceVertex.getId());
+                    int endVertex = index.vertexId(targetVertex.getId());
+                    if (startVertex < 0 || endVertex < 0) {
+                        continue;
                     }
+                    pairs.add(new int[] {startVertex, endVertex});
                 }
             }
         }
+        // The vertices, that reach a destination, are shared by all pairs with this destination.
+        Reachability reachability = new Reachability(index);
+        boolean[][] reaching = new boolean[index.vertexCount()][];
+        for (int[] pair : pairs) {
+            if (reaching[pair[1]] == null) {
+                reaching[pair[1]] = reachability.reaching(pair[1]);
+            }
+        }
+        List<Tuple2<Long, Long>> results = new ArrayList<>(Collections.nCopies(pairs.size(), null));
+        if (pool != null) {
+            ThreadLocal<PathSearch> searches = ThreadLocal.withInitial(() -> new PathSearch(index));
+            pool.invoke(new PairTask(searches, index, reaching, pairs, results, 0, pairs.size()));
+        }
+        else {
+            PathSearch search = new PathSearch(index);
+            for (int i = 0; i < pairs.size(); i++) {
+                results.set(i, determine(search, index, reaching, pairs.get(i)[0], pairs.get(i)[1]));
+            }
+        }
+        // The fractions are summed in the order of the pairs, so the result doesn't depend on the scheduling.
+        for (Tuple2<Long, Long> fraction : results) {
+            if (fraction.f1 != 0) {
+                f2 += fraction.f0.doubleValue() / fraction.f1.doubleValue();
+            }
+        }
 
-        // Search the smallest ValidFrom time
-        Long start = affectedEdges.stream().min(Comparator.comparing(TemporalElement::getValidFrom)).orElse(new TemporalEdge()).getValidFrom();
-        // Search the biggest ValidTo time
-        Long end = affectedEdges.stream().max(Comparator.comparing(TemporalElement::getValidTo)).orElse(new TemporalEdge()).getValidTo();
+        DoubleDiagram diagram = new DoubleDiagram(DoubleDiagram.NULL);
+        if (affectedEdges.edgeCount() > 0) {
+            // Search the smallest ValidFrom time and the biggest ValidTo time
+            long start = Long.MAX_VALUE;
+            long end = Long.MIN_VALUE;
+            for (int e = 0; e < affectedEdges.edgeCount(); e++) {
+                start = Math.min(start, affectedEdges.validFrom(e));
+                end = Math.max(end, affectedEdges.validTo(e));
+            }
+            diagram.insertMin(start, end, f1 * f2);
+        }
+        result = diagram.snapshot();
+    }
 
-        result = new Diagram<>(null);
-        if (start != null) {
-            result.insertMin(start, end, f1 * f2);
+    /**
+     * Selects the algorithm for the following calculations.
+     * Engine.PATHS counts the overlapping paths of the depth-first enumeration for every pair and reports the sum as a
+     * single value for the whole time span of the edges.
+     * Engine.SWEEP counts the shortest paths of every elementary interval between two edge times with the algorithm of
+     * Brandes. It determines all vertices at once, so their results are available with getAllData().
+     * @param engine Engine.PATHS (default) or Engine.SWEEP.
+     */
+    public void setEngine(Engine engine) {
+        if (engine != Engine.PATHS && engine != Engine.SWEEP) {
+            throw new IllegalArgumentException(engine + " is not supported by TemporalBetweennessCentrality.");
         }
+        this.engine = engine;
     }
 
     /**
-     * Determines the Shortest Paths between two vertices.
-     * @param edges Edges which shall be used to find the shortest paths.
-     * @param startId Id of the origin vertex
-     * @param endId Id of the destination vertex
-     * @return Touple with two Long. The first number is the amount of shortest paths not traversing through vertexId. The second number is the amount of shortest paths traversing through vertexId.
+     * Sets the amount of threads, on which Engine.PATHS evaluates the pairs of vertices. The fractions of the pairs are
+     * summed in a fixed order, so the result is the same as with one thread. The threads are kept for all following
+     * calculations of this instance.
+     * @param parallelism Amount of threads. 1 (default) evaluates the pairs on the calling thread.
      */
-    private Tuple2<Long, Long> determine(List<TemporalEdge> edges, GradoopId startId, GradoopId endId) {
-        Tuple2<Long, Long> fraction = new Tuple2<>(0L, 0L);
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism has to be at least 1.");
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
 
-        Stack<StackItem<TemporalEdge>> stack = new Stack<>();
-        Stack<TemporalEdge> path = new Stack<>();
-        Stack<GradoopId> edgePath = new Stack<>();
-        RecursiveAction action = RecursiveAction.WENT_DEEPER;
-        stack.push(new StackItem<>(edges.stream().filter(e -> e.getSourceId().equals(startId)).collect(Collectors.toList()), Long.MIN_VALUE, Long.MAX_VALUE));
+    /**
+     * Returns the results of all vertices of the last calculation with Engine.SWEEP.
+     * @return Map from the id of every vertex to its result, or null, if the last calculation didn't use Engine.SWEEP.
+     */
+    public Map<GradoopId, Diagram<Long, Double>> getAllData() {
+        return allData;
+    }
 
-        if (stack.peek().current() == null) {
-            return fraction;
+    /**
+     * Determines the Temporal Betweenness Centrality of all vertices with one sweep over the snapshots of the graph.
+     * @param index Index of the graph.
+     * @param factor Normalization of the sums of the dependencies.
+     */
+    private void determineAll(TemporalGraphIndex index, double factor) {
+        boolean[] counted = new boolean[index.vertexCount()];
+        DoubleDiagram[] diagrams = new DoubleDiagram[index.vertexCount()];
+        for (TemporalVertex vertex : vertices) {
+            int v = index.vertexId(vertex.getId());
+            if (v >= 0) {
+                counted[v] = true;
+                diagrams[v] = new DoubleDiagram(DoubleDiagram.NULL);
+            }
+        }
+        BrandesSweep.run(index, counted, factor, diagrams);
+
+        Map<GradoopId, Diagram<Long, Double>> all = new LinkedHashMap<>();
+        for (TemporalVertex vertex : vertices) {
+            int v = index.vertexId(vertex.getId());
+            DoubleDiagram diagram = v >= 0 ? diagrams[v] : new DoubleDiagram(DoubleDiagram.NULL);
+            all.put(vertex.getId(), diagram.toDiagram().snapshot());
+            if (vertex.getId().equals(vertexId)) {
+                result = diagram.snapshot();
+            }
         }
+        allData = Collections.unmodifiableMap(all);
+    }
 
-        path.push(stack.peek().next());
+    /**
+     * Selects the edges within the time span of the metric.
+     * @param edges Store of all edges.
+     * @return New store with the vertices of 'edges' and the selected edges.
+     */
+    private EdgeStore select(EdgeStore edges) {
+        EdgeStore selected = new EdgeStore();
+        for (int v = 0; v < edges.vertexCount(); v++) {
+            selected.addVertex(edges.vertex(v), edges.vertexLabel(v));
+        }
+        for (int e = 0; e < edges.edgeCount(); e++) {
+            if ((from < 0 || edges.validFrom(e) >= from) && (to < 0 || edges.validTo(e) <= to)) {
+                selected.addEdge(edges.source(e), edges.target(e), edges.validFrom(e), edges.validTo(e), edges.label(e));
+            }
+        }
+        return selected;
+    }
 
-        edgePath.push(path.peek().getSourceId());
-        edgePath.push(path.peek().getTargetId());
+    /**
+     * Determines the Shortest Paths between two vertices.
+     * @param search Search on the index of the graph, which shall be used to find the shortest paths.
+     * @param index Index of the graph, which shall be used to find the shortest paths.
+     * @param reaching Flags by dense id of the destination and of the vertex, true if the vertex reaches the destination.
+     * @param startVertex Dense id of the origin vertex
+     * @param endVertex Dense id of the destination vertex
+     * @return Touple with two Long. The first number is the amount of shortest paths not traversing through vertexId. The second number is the amount of shortest paths traversing through vertexId.
+     */
+    private Tuple2<Long, Long> determine(PathSearch search, TemporalGraphIndex index, boolean[][] reaching,
+                                         int startVertex, int endVertex) {
+        Tuple2<Long, Long> fraction = new Tuple2<>(0L, 0L);
+        int vertex = index.vertexId(this.vertexId);
+        boolean[] toEnd = reaching[endVertex];
+        if (!toEnd[startVertex]) {
+            return fraction;
+        }
+        search.run(startVertex, endVertex, new PathSearch.Rules() {
+            @Override
+            public boolean starts(int edge) {
+                return toEnd[index.target(edge)];
+            }
 
-        while (stack.size() > 0) {
-            // Falls in nächsten Rekursionsschritt
-            if (action == RecursiveAction.WENT_DEEPER || action == RecursiveAction.WENT_NEXT) {
-                if (path.peek().getTargetId().equals(endId)) {
-                    // Found result
-                    if (edgePath.contains(this.vertexId)) {
-                        fraction.f0++;
-                    }
-                    fraction.f1++;
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return index.validFrom(edge) < to && index.validTo(edge) > from && toEnd[index.target(edge)];
+            }
 
-                    path.pop();
-                    edgePath.pop();
-                    stack.pop();
-                    action = RecursiveAction.WENT_BACK;
-                }
-                else {
-                    TemporalEdge lastEdge = path.peek();
-                    long from = Math.max(stack.peek().getPreviousFrom(), lastEdge.getValidFrom());
-                    long to = Math.min(stack.peek().getPreviousTo(), lastEdge.getValidTo());
-                    List<TemporalEdge> nextSteps = edges.stream().filter(e ->
-                            e.getSourceId().equals(lastEdge.getTargetId())
-                                    && e.getValidFrom() < to
-                                    && e.getValidTo() > from
-                                    && !edgePath.contains(e.getTargetId())
-                    ).collect(Collectors.toList());
-
-                    if (nextSteps.size() <= 0) {
-                        path.pop();
-                        edgePath.pop();
-                        TemporalEdge next = stack.peek().next();
-                        if (next == null) {
-                            stack.pop();
-                            action = RecursiveAction.WENT_BACK;
-                        }
-                        else {
-                            path.push(next);
-                            edgePath.push(path.peek().getTargetId());
-                            action = RecursiveAction.WENT_NEXT;
-                        }
-                    }
-                    else {
-                        stack.push(new StackItem<>(
-                                nextSteps,
-                                from, //Math.min(stack.peek().getPreviousFrom(), path.peek().getValidFrom()),
-                                to //Math.max(stack.peek().getPreviousTo(), path.peek().getValidTo())
-                        ));
-                        path.push(stack.peek().next());
-                        edgePath.push(path.peek().getTargetId());
-                        action = RecursiveAction.WENT_DEEPER;
-                    }
+            @Override
+            public void found(int[] path, int length, long from, long to) {
+                if (search.isOnPath(vertex)) {
+                    fraction.f0++;
                 }
+                fraction.f1++;
             }
-            else if (action == RecursiveAction.WENT_BACK) {
-                path.pop();
-                edgePath.pop();
-                TemporalEdge next = stack.peek().next();
-                if (next == null) {
-                    stack.pop();
-                }
-                else {
-                    path.push(next);
-                    edgePath.push(path.peek().getTargetId());
-                    action = RecursiveAction.WENT_NEXT;
+        });
+        return fraction;
+    }
+
+    /**
+     * Task, that determines the shortest paths of a range of pairs. Ranges with more than one pair are split in halves.
+     */
+    private class PairTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final ThreadLocal<PathSearch> searches;
+        private final TemporalGraphIndex index;
+        private final boolean[][] reaching;
+        private final List<int[]> pairs;
+        private final List<Tuple2<Long, Long>> results;
+        private final int low;
+        private final int high;
+
+        /**
+         * Constructor of PairTask
+         * @param searches Search of every thread.
+         * @param index Index of the graph.
+         * @param reaching Flags by dense id of the destination and of the vertex, true if the vertex reaches the destination.
+         * @param pairs Dense ids of the origin and destination vertices.
+         * @param results List, in which the result of every pair is stored at the position of the pair.
+         * @param low First pair of the range (inclusive).
+         * @param high Last pair of the range (exclusive).
+         */
+        private PairTask(ThreadLocal<PathSearch> searches, TemporalGraphIndex index, boolean[][] reaching,
+                         List<int[]> pairs, List<Tuple2<Long, Long>> results, int low, int high) {
+            this.searches = searches;
+            this.index = index;
+            this.reaching = reaching;
+            this.pairs = pairs;
+            this.results = results;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= 1) {
+                for (int i = low; i < high; i++) {
+                    results.set(i, determine(searches.get(), index, reaching, pairs.get(i)[0], pairs.get(i)[1]));
                 }
+                return;
             }
+            int middle = (low + high) >>> 1;
+            invokeAll(new PairTask(searches, index, reaching, pairs, results, low, middle),
+                    new PairTask(searches, index, reaching, pairs, results, middle, high));
         }
-        return fraction;
     }
 
     @Override
     public Diagram<Long, Double> getData() {
+        DoubleDiagram current = result;
+        if (current == null) {
+            return null;
+        }
+        Tuple2<DoubleDiagram, Diagram<Long, Double>> cached = data;
+        if (cached == null || cached.f0 != current) {
+            cached = new Tuple2<>(current, current.toDiagram().snapshot());
+            data = cached;
+        }
+        return cached.f1;
+    }
+
+    /**
+     * Returns the result of the metric without boxing.
+     * @return Result as a DoubleDiagram
+     */
+    public DoubleDiagram getPrimitiveData() {
         return result;
     }
 
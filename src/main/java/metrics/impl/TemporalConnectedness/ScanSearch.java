@@ -0,0 +1,113 @@
+package metrics.impl.TemporalConnectedness;
+
+import basics.diagram.ShortDiagram;
+import basics.graph.EventSweep;
+import basics.graph.TemporalGraphIndex;
+
+import java.util.Arrays;
+
+/**
+ * Single scan over the edges in the order of their valid-from-times. Every path adds its interval from the first
+ * departure to the last arrival, so for every edge only the earliest departure from the origin vertex over all paths,
+ * that end with this edge, is needed. An edge can follow every edge, that arrived at its source before it starts, so
+ * the earliest departure of the arrived edges is kept per vertex.
+ * A walk, that visits an inner vertex twice, can skip the cycle without changing its first and last edge. Edges back to
+ * the origin vertex and edges leaving the destination vertex are ignored, so the result is the same as for all simple
+ * paths. Like the path enumeration, a path may start with a loop at the origin vertex. Edges with validFrom > validTo
+ * are never used. Runs in O(m log m).
+ */
+final class ScanSearch {
+    private ScanSearch() {
+    }
+
+    /**
+     * Determines the intervals, in which 'startVertex' is temporally connected to 'endVertex'.
+     * @param index Index of the graph.
+     * @param startVertex Dense id of the origin vertex.
+     * @param endVertex Dense id of the destination vertex.
+     * @param diagram Diagram, in which the intervals are inserted with the value 1.
+     */
+    static void run(TemporalGraphIndex index, int startVertex, int endVertex, ShortDiagram diagram) {
+        int usable = 0;
+        int lasting = 0;
+        for (int e = 0; e < index.edgeCount(); e++) {
+            if (isUsable(index, e, startVertex, endVertex)) {
+                usable++;
+                if (index.validFrom(e) < index.validTo(e)) {
+                    lasting++;
+                }
+            }
+        }
+        int[] byFrom = new int[usable];
+        int[] byTo = new int[lasting];
+        for (int e = 0, i = 0, j = 0; e < index.edgeCount(); e++) {
+            if (isUsable(index, e, startVertex, endVertex)) {
+                byFrom[i++] = e;
+                if (index.validFrom(e) < index.validTo(e)) {
+                    byTo[j++] = e;
+                }
+            }
+        }
+        EventSweep.sort(index, byFrom, true);
+        EventSweep.sort(index, byTo, false);
+
+        long[] departures = new long[index.edgeCount()];
+        long[] earliest = new long[index.vertexCount()];
+        Arrays.fill(earliest, Long.MAX_VALUE);
+        int nextTo = 0;
+        for (int low = 0, high; low < byFrom.length; low = high) {
+            long time = index.validFrom(byFrom[low]);
+            high = low + 1;
+            while (high < byFrom.length && index.validFrom(byFrom[high]) == time) {
+                high++;
+            }
+            while (nextTo < byTo.length && index.validTo(byTo[nextTo]) <= time) {
+                int edge = byTo[nextTo++];
+                earliest[index.target(edge)] = Math.min(earliest[index.target(edge)], departures[edge]);
+            }
+
+            // Edges with validFrom == validTo arrive at the time they start, so they are repeated until nothing changes.
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int i = low; i < high; i++) {
+                    int edge = byFrom[i];
+                    int source = index.source(edge);
+                    int target = index.target(edge);
+                    if (source != startVertex) {
+                        departures[edge] = earliest[source];
+                    }
+                    else if (target != startVertex) {
+                        departures[edge] = Math.min(time, earliest[startVertex]);
+                    }
+                    else {
+                        departures[edge] = time;
+                    }
+                    if (index.validTo(edge) == time && departures[edge] < earliest[target]) {
+                        earliest[target] = departures[edge];
+                        changed = true;
+                    }
+                }
+            }
+            for (int i = low; i < high; i++) {
+                int edge = byFrom[i];
+                if (index.target(edge) == endVertex && departures[edge] < index.validTo(edge)) {
+                    diagram.insertMax(departures[edge], index.validTo(edge), (short)1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks, if an edge can be part of a path from 'startVertex' to 'endVertex'.
+     * @param index Index of the graph.
+     * @param edge Index of the edge.
+     * @param startVertex Dense id of the origin vertex.
+     * @param endVertex Dense id of the destination vertex.
+     * @return True, if the edge is used by the scan.
+     */
+    private static boolean isUsable(TemporalGraphIndex index, int edge, int startVertex, int endVertex) {
+        return index.validFrom(edge) <= index.validTo(edge) && index.source(edge) != endVertex
+                && (index.target(edge) != startVertex || index.source(edge) == startVertex);
+    }
+}
@@ -1,22 +1,30 @@
 package metrics.impl.TemporalConnectedness;
 
-import basics.StackItem;
+import basics.diagram.Compaction;
 import basics.diagram.Diagram;
+import basics.diagram.ShortDiagram;
+import basics.graph.EdgeStore;
+import basics.graph.IntervalIndex;
+import basics.graph.ParallelPathSearch;
+import basics.graph.PathSearch;
+import basics.graph.Reachability;
+import basics.graph.TemporalGraphIndex;
 import export.CSVExporter;
 import export.ImageExporter;
 import importing.TestDataImporter;
+import metrics.api.Engine;
 import metrics.api.IMetric;
-import basics.RecursiveAction;
+import org.apache.flink.api.java.tuple.Tuple2;
 import org.gradoop.common.model.impl.id.GradoopId;
 import org.gradoop.common.model.impl.pojo.EPGMElement;
 import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of the Temporal Connectedness from "Graph Metrics for Temporal Networks" by Vincenzo Nicosia et. al.
@@ -25,8 +33,14 @@ import java.util.stream.Collectors;
 public class TemporalConnectedness implements IMetric<Short> {
     private final GradoopId startId;
     private final GradoopId endId;
-    private final ArrayList<TemporalEdge> oldEdges = new ArrayList<>();
-    private Diagram<Long, Short> diagram = new Diagram<>((short)0);
+    private final IntervalIndex<TemporalEdge> oldEdges = new IntervalIndex<>();
+    private ShortDiagram diagram = new ShortDiagram((short)0);
+    private volatile ShortDiagram published = diagram.snapshot();
+    private volatile Tuple2<ShortDiagram, Diagram<Long, Short>> data = null;
+    private long resolution = 0;
+    private Compaction compaction = null;
+    private Engine engine = Engine.PATHS;
+    private ForkJoinPool pool = null;
 
     /**
      * Constructor of TemporalConnectedness
@@ -46,21 +60,98 @@ public class TemporalConnectedness implements IMetric<Short> {
 
     @Override
     public void calculate(TemporalEdge edge) {
-        determine(selectRelevantEdges(edge));
-        oldEdges.add(edge);
+        determine(new TemporalGraphIndex(selectRelevantEdges(edge)));
+        oldEdges.insert(edge.getValidFrom(), edge.getValidTo(), edge);
+        this.published = this.diagram.snapshot();
     }
 
     @Override
     public void calculate(List<TemporalEdge> edges) {
-        this.diagram = new Diagram((short)0);
-        this.oldEdges.clear();
-        this.oldEdges.addAll(edges);
-        determine(edges);
+        reset();
+        for (TemporalEdge edge : edges) {
+            this.oldEdges.insert(edge.getValidFrom(), edge.getValidTo(), edge);
+        }
+        determine(new TemporalGraphIndex(edges));
+        this.published = this.diagram.snapshot();
+    }
+
+    @Override
+    public void calculate(EdgeStore edges) {
+        reset();
+        determine(new TemporalGraphIndex(edges));
+        this.published = this.diagram.snapshot();
     }
 
     @Override
     public Diagram<Long, Short> getData() {
-        return this.diagram;
+        ShortDiagram current = this.published;
+        Tuple2<ShortDiagram, Diagram<Long, Short>> cached = this.data;
+        if (cached == null || cached.f0 != current) {
+            cached = new Tuple2<>(current, current.toDiagram().snapshot());
+            this.data = cached;
+        }
+        return cached.f1;
+    }
+
+    /**
+     * Returns the result of the metric without boxing.
+     * @return Result as a ShortDiagram
+     */
+    public ShortDiagram getPrimitiveData() {
+        return this.published;
+    }
+
+    /**
+     * Downsamples the result to a time resolution. The current result is downsampled immediately, new results on insert.
+     * @param resolution Width of the time buckets.
+     * @param policy How the values within a bucket are combined, e.g. Compaction.MAX.
+     */
+    public void setCompaction(long resolution, Compaction policy) {
+        this.diagram.setCompaction(resolution, policy);
+        this.resolution = resolution;
+        this.compaction = policy;
+        this.published = this.diagram.snapshot();
+    }
+
+    /**
+     * Selects the algorithm for the following calculations.
+     * Engine.SCAN determines the intervals of all simple paths with one scan over the edges, so it is fast enough for
+     * large graphs. Engine.PATHS stops at the first path, that reaches the destination on a level, so it can miss the
+     * intervals of later siblings.
+     * @param engine Engine.PATHS (default) or Engine.SCAN.
+     */
+    public void setEngine(Engine engine) {
+        if (engine != Engine.PATHS && engine != Engine.SCAN) {
+            throw new IllegalArgumentException(engine + " is not supported by TemporalConnectedness.");
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * Sets the amount of threads, on which Engine.PATHS enumerates the paths. The subtrees of the first edges are split
+     * across the threads, the result is the same as with one thread. The threads are kept for all following
+     * calculations of this instance, so streamed edges don't start new threads.
+     * @param parallelism Amount of threads. 1 (default) enumerates the paths on the calling thread.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism has to be at least 1.");
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Starts a new result with the current compaction and forgets the streamed edges.
+     */
+    private void reset() {
+        this.diagram = new ShortDiagram((short)0);
+        if (compaction != null) {
+            this.diagram.setCompaction(resolution, compaction);
+        }
+        this.oldEdges.clear();
     }
 
     /**
@@ -69,85 +160,104 @@ public class TemporalConnectedness implements IMetric<Short> {
      * @return List of TemporalEdges
      */
     private List<TemporalEdge> selectRelevantEdges(TemporalEdge edge) {
-        List<TemporalEdge> filtered = oldEdges.stream().filter(o -> o.getValidFrom() > edge.getValidTo() || o.getValidTo() < edge.getValidFrom()).collect(Collectors.toList());
+        List<TemporalEdge> filtered = oldEdges.disjoint(edge.getValidFrom(), edge.getValidTo());
         filtered.add(edge);
         return filtered;
     }
 
     /**
      * Determines the TemporalConnectedness from a given list of edges. Stores the results in a diagram.
-     * @param edges List of TemporalEdges
+     * @param index Index of the graph to work with
      */
-    private void determine(List<TemporalEdge> edges) {
-        Stack<StackItem<TemporalEdge>> stack = new Stack<>();
-        Stack<TemporalEdge> path = new Stack<>();
-        Stack<GradoopId> vertexPath = new Stack<>();
-        RecursiveAction action = RecursiveAction.WENT_DEEPER;
-        stack.push(new StackItem<>(
-                edges.stream().filter(e -> e.getSourceId().equals(this.startId)).collect(Collectors.toList()),
-                Long.MIN_VALUE,
-                Long.MAX_VALUE
-        ));
-        path.push(stack.peek().next());
-        vertexPath.push(path.peek().getSourceId());
-        vertexPath.push(path.peek().getTargetId());
-
-        while (stack.size() > 0) {
-            if (action == RecursiveAction.WENT_DEEPER || action == RecursiveAction.WENT_NEXT) {
-                if (path.peek().getTargetId().equals(endId)) {
-                    diagram.insertMax(path.get(0).getValidFrom(), path.peek().getValidTo(), (short)1);
-
-                    path.pop();
-                    vertexPath.pop();
-                    stack.pop();
-                    action = RecursiveAction.WENT_BACK;
-                }
-                else {
-                    TemporalEdge lastEdge = path.peek();
-                    List<TemporalEdge> nextEdges = edges.stream().filter(e ->
-                            e.getSourceId().equals(lastEdge.getTargetId())
-                                    && e.getValidFrom() >= lastEdge.getValidTo()
-                                    && !vertexPath.contains(e.getTargetId())
-                    ).collect(Collectors.toList());
-
-                    if (nextEdges.size() <= 0) {
-                        path.pop();
-                        vertexPath.pop();
-                        TemporalEdge next = stack.peek().next();
-                        if (next == null) {
-                            stack.pop();
-                            action = RecursiveAction.WENT_BACK;
-                        }
-                        else {
-                            path.push(next);
-                            vertexPath.push(path.peek().getTargetId());
-                            action = RecursiveAction.WENT_NEXT;
-                        }
-                    }
-                    else {
-                        stack.push(new StackItem<>(
-                                nextEdges,
-                                0,
-                                0
-                        ));
-                        path.push(stack.peek().next());
-                        vertexPath.push(path.peek().getTargetId());
-                        action = RecursiveAction.WENT_DEEPER;
-                    }
-                }
+    private void determine(TemporalGraphIndex index) {
+        int startVertex = index.vertexId(this.startId);
+        int endVertex = index.vertexId(this.endId);
+        if (startVertex < 0 || endVertex < 0 || index.outStart(startVertex) == index.outEnd(startVertex)) {
+            return;
+        }
+        if (engine == Engine.SCAN) {
+            ScanSearch.run(index, startVertex, endVertex, diagram);
+            return;
+        }
+        // An edge can only be continued to the destination, if it ends before the latest departure from its target.
+        Reachability reachability = new Reachability(index);
+        long[] latest = reachability.latestDepartures(endVertex);
+        // A path can't be connected outside of [first departure from the origin, latest arrival from the origin).
+        long[] arrivals = reachability.latestArrivals(endVertex);
+        long departure = Long.MAX_VALUE;
+        for (int e = index.outStart(startVertex); e < index.outEnd(startVertex); e++) {
+            departure = Math.min(departure, index.validFrom(e));
+        }
+        if (isCovered(departure, arrivals[startVertex])) {
+            return;
+        }
+        if (pool != null) {
+            determineParallel(index, startVertex, endVertex, latest);
+            return;
+        }
+        new PathSearch(index).run(startVertex, endVertex, new PathSearch.Rules() {
+            @Override
+            public boolean starts(int edge) {
+                return index.validTo(edge) <= latest[index.target(edge)];
             }
-            else if (action == RecursiveAction.WENT_BACK) {
-                path.pop();
-                vertexPath.pop();
-                TemporalEdge next = stack.peek().next();
-                if (next == null) {
-                    stack.pop();
-                }
-                else {
-                    path.push(next);
-                    vertexPath.push(path.peek().getTargetId());
-                    action = RecursiveAction.WENT_NEXT;
-                }
+
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return index.validFrom(edge) >= index.validTo(lastEdge) && index.validTo(edge) <= latest[index.target(edge)];
+            }
+
+            @Override
+            public boolean explores(int[] path, int length, long from, long to) {
+                return !isCovered(index.validFrom(path[0]), arrivals[index.target(path[length - 1])]);
+            }
+
+            @Override
+            public void found(int[] path, int length, long from, long to) {
+                diagram.insertMax(index.validFrom(path[0]), index.validTo(path[length - 1]), (short)1);
+            }
+        });
+    }
+
+    /**
+     * Checks, if the diagram is already connected at every point of a time span, so paths within it change nothing.
+     * @param from Start of the time span (inclusive).
+     * @param to End of the time span (exclusive).
+     * @return True, if the time span isn't empty and completely connected.
+     */
+    private boolean isCovered(long from, long to) {
+        return from < to && diagram.lowerBound(from, to) >= 1;
+    }
+
+    /**
+     * Enumerates the paths like determine() on the threads of 'pool'. Every thread collects its intervals in its own
+     * diagram, the diagrams are merged at the end.
+     * @param index Index of the graph to work with
+     * @param startVertex Dense id of the origin vertex
+     * @param endVertex Dense id of the destination vertex
+     * @param latest Latest departure towards the destination vertex by dense id
+     */
+    private void determineParallel(TemporalGraphIndex index, int startVertex, int endVertex, long[] latest) {
+        int[] rootEdges = IntStream.range(index.outStart(startVertex), index.outEnd(startVertex))
+                .filter(e -> index.validTo(e) <= latest[index.target(e)])
+                .toArray();
+        ParallelPathSearch.Rules<ShortDiagram> rules = new ParallelPathSearch.Rules<ShortDiagram>() {
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return index.validFrom(edge) >= index.validTo(lastEdge) && index.validTo(edge) <= latest[index.target(edge)];
+            }
+
+            @Override
+            public void found(int[] path, int length, long from, long to, ShortDiagram result) {
+                result.insertMax(index.validFrom(path[0]), index.validTo(path[length - 1]), (short)1);
+            }
+        };
+        ShortDiagram batch = new ParallelPathSearch<>(index, startVertex, endVertex, rules,
+                () -> new ShortDiagram((short)0),
+                (a, b) -> ShortDiagram.merge(a, b, ShortDiagram.MAX)
+        ).run(rootEdges, pool);
+        for (int i = 0; i + 1 < batch.size(); i++) {
+            if (batch.valueAt(i) == 1) {
+                diagram.insertMax(batch.keyAt(i), batch.keyAt(i + 1), (short)1);
             }
         }
     }
@@ -1,14 +1,19 @@
 package metrics.impl.TemporalShortestPath;
 
 import basics.ComparableObject;
-import basics.StackItem;
 import basics.diagram.Diagram;
+import basics.graph.EdgeStore;
+import basics.graph.IntervalIndex;
+import basics.graph.ParallelPathSearch;
+import basics.graph.PathSearch;
+import basics.graph.Reachability;
+import basics.graph.TemporalGraphIndex;
 import export.CSVExporter;
 import export.ImageExporter;
 import importing.TestDataImporter;
+import metrics.api.Engine;
 import metrics.api.IMetric;
-import basics.RecursiveAction;
-import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
 import org.gradoop.common.model.impl.id.GradoopId;
 import org.gradoop.common.model.impl.pojo.EPGMElement;
 import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
@@ -16,6 +21,7 @@ import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -23,10 +29,15 @@ import java.util.stream.Collectors;
  * The Temporal Shortest Path is the path with overlapping edges from on vertex to another with the shortest temporal length. The amount of hops is irellevant.
  */
 public class TemporalShortestPath implements IMetric<ComparableObject<Long, List<TemporalEdge>>> {
+    private static final int BUFFER_SIZE = 1 << 16;
     private final GradoopId startId;
     private final GradoopId endId;
-    private final ArrayList<TemporalEdge> oldEdges = new ArrayList<>();
+    private final IntervalIndex<TemporalEdge> oldEdges = new IntervalIndex<>();
     private Diagram<Long, ComparableObject<Long, List<TemporalEdge>>> diagram = new Diagram<>(null);
+    private volatile Diagram<Long, ComparableObject<Long, List<TemporalEdge>>> published = diagram.snapshot();
+    private final List<Tuple3<Long, Long, ComparableObject<Long, List<TemporalEdge>>>> intervals = new ArrayList<>();
+    private Engine engine = Engine.PATHS;
+    private ForkJoinPool pool = null;
 
     /**
      * Constructor of TemporalShortestPath
@@ -47,21 +58,65 @@ public class TemporalShortestPath implements IMetric<ComparableObject<Long, List
 
     @Override
     public void calculate(TemporalEdge edge) {
-        determine(selectRelevantEdges(edge));
-        oldEdges.add(edge);
+        determine(new TemporalGraphIndex(selectRelevantEdges(edge)));
+        oldEdges.insert(edge.getValidFrom(), edge.getValidTo(), edge);
+        published = diagram.snapshot();
     }
 
     @Override
     public void calculate(List<TemporalEdge> edges) {
         this.oldEdges.clear();
-        this.oldEdges.addAll(edges);
+        for (TemporalEdge edge : edges) {
+            this.oldEdges.insert(edge.getValidFrom(), edge.getValidTo(), edge);
+        }
         this.diagram = new Diagram<>(null);
-        determine(edges);
+        determine(new TemporalGraphIndex(edges));
+        this.published = this.diagram.snapshot();
+    }
+
+    @Override
+    public void calculate(EdgeStore edges) {
+        this.oldEdges.clear();
+        this.diagram = new Diagram<>(null);
+        determine(new TemporalGraphIndex(edges));
+        this.published = this.diagram.snapshot();
     }
 
     @Override
     public Diagram<Long, ComparableObject<Long, List<TemporalEdge>>> getData() {
-        return diagram;
+        return published;
+    }
+
+    /**
+     * Selects the algorithm for the following calculations.
+     * Engine.PARETO enumerates like Engine.PATHS, but drops a partial path, if an earlier one visited the same vertices
+     * in the same order with the same time span, so duplicates over parallel edges are searched once and the result is
+     * the same as with Engine.PATHS. Engine.SWEEP isn't supported: the
+     * narrowest time span of the simple paths in a snapshot can't be determined without enumerating them, and dropping
+     * labels can report longer durations than Engine.PATHS.
+     * @param engine Engine.PATHS (default) or Engine.PARETO.
+     */
+    public void setEngine(Engine engine) {
+        if (engine != Engine.PATHS && engine != Engine.PARETO) {
+            throw new IllegalArgumentException(engine + " is not supported by TemporalShortestPath.");
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * Sets the amount of threads, on which Engine.PATHS enumerates the paths. The subtrees of the first edges are split
+     * across the threads, the result is the same as with one thread. The threads are kept for all following
+     * calculations of this instance, so streamed edges don't start new threads.
+     * @param parallelism Amount of threads. 1 (default) enumerates the paths on the calling thread.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism has to be at least 1.");
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
     }
 
     /**
@@ -70,116 +125,174 @@ public class TemporalShortestPath implements IMetric<ComparableObject<Long, List
      * @return List of TemporalEdges
      */
     private List<TemporalEdge> selectRelevantEdges(TemporalEdge edge) {
-        List<TemporalEdge> filtered = oldEdges.stream().filter(o ->
-                o.getValidFrom() < edge.getValidTo() && o.getValidTo() > edge.getValidFrom()).collect(Collectors.toList());
+        List<TemporalEdge> filtered = oldEdges.overlapping(edge.getValidFrom(), edge.getValidTo());
         filtered.add(edge);
         return filtered;
     }
 
     /**
      * Determines the TemporalShortestPath from a given list of edges. Stores the results in a diagram.
-     * @param edges List of TemporalEdges
+     * @param index Index of the graph to work with
      */
-    private void determine(List<TemporalEdge> edges) {
-        Stack<StackItem<TemporalEdge>> stack = new Stack<>();
-        Stack<TemporalEdge> path = new Stack<>();
-        Stack<GradoopId> edgePath = new Stack<>();
-        RecursiveAction action = RecursiveAction.WENT_DEEPER;
-        stack.push(new StackItem<>(edges.stream().filter(e -> e.getSourceId().equals(startId) && !e.getTargetId().equals(startId)).collect(Collectors.toList()), Long.MIN_VALUE, Long.MAX_VALUE));
-        path.push(stack.peek().next());
-        edgePath.push(path.peek().getSourceId());
-        edgePath.push(path.peek().getTargetId());
+    private void determine(TemporalGraphIndex index) {
+        int startVertex = index.vertexId(startId);
+        int endVertex = index.vertexId(endId);
+        if (startVertex < 0 || endVertex < 0) {
+            return;
+        }
+        List<Integer> startEdges = new ArrayList<>();
+        for (int e = index.outStart(startVertex); e < index.outEnd(startVertex); e++) {
+            if (index.target(e) != startVertex) {
+                startEdges.add(e);
+            }
+        }
+        if (startEdges.isEmpty()) {
+            return;
+        }
+        boolean[] reaching = new Reachability(index).reaching(endVertex);
+        startEdges.removeIf(e -> !reaching[index.target(e)]);
+        if (startEdges.isEmpty()) {
+            return;
+        }
+        if (pool != null && engine == Engine.PATHS) {
+            determineParallel(index, startVertex, endVertex, startEdges, reaching);
+            return;
+        }
+        Set<PathLabel> labels = engine == Engine.PARETO ? new HashSet<>() : null;
+        new PathSearch(index).run(startVertex, endVertex, new PathSearch.Rules() {
+            @Override
+            public boolean starts(int edge) {
+                return index.target(edge) != startVertex && reaching[index.target(edge)];
+            }
 
-        while (stack.size() > 0) {
-            if (action == RecursiveAction.WENT_DEEPER || action == RecursiveAction.WENT_NEXT) {
-                if (path.peek().getTargetId().equals(endId)) {
-                    Tuple2<Long, Long> trimmed = trim(path);
-                    if (trimmed.f0 < trimmed.f1) {
-                        diagram.insertMin(
-                                trimmed.f0,
-                                trimmed.f1,
-                                new ComparableObject<>(trimmed.f1 - trimmed.f0, new ArrayList<>(path))
-                        );
-                    }
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return index.validFrom(edge) < to && index.validTo(edge) > from && reaching[index.target(edge)];
+            }
 
-                    path.pop();
-                    edgePath.pop();
-                    stack.pop();
-                    action = RecursiveAction.WENT_BACK;
-                }
-                else {
-                    TemporalEdge lastEdge = path.peek();
-                    long from = Math.max(stack.peek().getPreviousFrom(), lastEdge.getValidFrom());
-                    long to = Math.min(stack.peek().getPreviousTo(), lastEdge.getValidTo());
-                    List<TemporalEdge> nextSteps = edges.stream().filter(e ->
-                            e.getSourceId().equals(lastEdge.getTargetId())
-                                    && e.getValidFrom() < to
-                                    && e.getValidTo() > from
-                                    && !edgePath.contains(e.getTargetId())
-                    ).collect(Collectors.toList());
+            @Override
+            public boolean explores(int[] path, int length, long from, long to) {
+                // The duration of a path is the width of its time span, so a wider span doesn't dominate a narrower one.
+                // Another path to the same vertex can't continue over its own vertices, so only a path over the same
+                // vertices with the same span has the same extensions.
+                return labels == null || (from < to && labels.add(new PathLabel(index, path, length, from, to)));
+            }
 
-                    if (nextSteps.size() <= 0) {
-                        path.pop();
-                        edgePath.pop();
-                        TemporalEdge next = stack.peek().next();
-                        if (next == null) {
-                            stack.pop();
-                            action = RecursiveAction.WENT_BACK;
-                        }
-                        else {
-                            path.push(next);
-                            edgePath.push(path.peek().getTargetId());
-                            action = RecursiveAction.WENT_NEXT;
-                        }
+            @Override
+            public void found(int[] path, int length, long from, long to) {
+                if (from < to) {
+                    List<TemporalEdge> edgeList = new ArrayList<>(length);
+                    for (int i = 0; i < length; i++) {
+                        edgeList.add(index.edge(path[i]));
                     }
-                    else {
-                        stack.push(new StackItem<>(
-                                nextSteps,
-                                from, //Math.min(stack.peek().getPreviousFrom(), path.peek().getValidFrom()),
-                                to //Math.max(stack.peek().getPreviousTo(), path.peek().getValidTo())
-                        ));
-                        path.push(stack.peek().next());
-                        edgePath.push(path.peek().getTargetId());
-                        action = RecursiveAction.WENT_DEEPER;
+                    intervals.add(new Tuple3<>(from, to, new ComparableObject<>(to - from, edgeList)));
+                    if (intervals.size() >= BUFFER_SIZE) {
+                        flush();
                     }
                 }
             }
-            else if (action == RecursiveAction.WENT_BACK) {
-                path.pop();
-                edgePath.pop();
-                TemporalEdge next = stack.peek().next();
-                if (next == null) {
-                    stack.pop();
-                }
-                else {
-                    path.push(next);
-                    edgePath.push(path.peek().getTargetId());
-                    action = RecursiveAction.WENT_NEXT;
+        });
+        flush();
+    }
+
+    /**
+     * Enumerates the paths like determine() on the threads of 'pool'. Every thread collects its paths in its own
+     * diagram, the diagrams are merged in the order of the enumeration, so equally short paths are chosen the same way.
+     * @param index Index of the graph to work with
+     * @param startVertex Dense id of the origin vertex
+     * @param endVertex Dense id of the destination vertex
+     * @param startEdges Edges leaving the origin vertex
+     * @param reaching Flags by dense id, true if the vertex reaches the destination vertex
+     */
+    private void determineParallel(TemporalGraphIndex index, int startVertex, int endVertex, List<Integer> startEdges,
+                                   boolean[] reaching) {
+        int[] rootEdges = startEdges.stream().mapToInt(Integer::intValue).toArray();
+        ParallelPathSearch.Rules<Diagram<Long, ComparableObject<Long, List<TemporalEdge>>>> rules =
+                new ParallelPathSearch.Rules<Diagram<Long, ComparableObject<Long, List<TemporalEdge>>>>() {
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return index.validFrom(edge) < to && index.validTo(edge) > from && reaching[index.target(edge)];
+            }
+
+            @Override
+            public void found(int[] path, int length, long from, long to,
+                              Diagram<Long, ComparableObject<Long, List<TemporalEdge>>> result) {
+                if (from < to) {
+                    List<TemporalEdge> edgeList = new ArrayList<>(length);
+                    for (int i = 0; i < length; i++) {
+                        edgeList.add(index.edge(path[i]));
+                    }
+                    result.insertMin(from, to, new ComparableObject<>(to - from, edgeList));
                 }
             }
+        };
+        merge(new ParallelPathSearch<>(index, startVertex, endVertex, rules,
+                () -> new Diagram<>(null),
+                (a, b) -> Diagram.merge(a, b, Diagram.minimum())
+        ).run(rootEdges, pool));
+    }
+
+    /**
+     * Builds the lower envelope of the buffered paths and inserts it into the diagram.
+     */
+    private void flush() {
+        if (intervals.size() <= 0) {
+            return;
         }
+        Diagram<Long, ComparableObject<Long, List<TemporalEdge>>> batch = Diagram.buildMin(intervals, null);
+        intervals.clear();
+        merge(batch);
     }
 
     /**
-     * Determines the timeframe in which a stack of edges occurs.
-     * @param stack Stack of edges
-     * @return Tuple with two Longs. The first number is the start time and the second number is the end time.
+     * Merges paths into the diagram.
+     * @param batch Lower envelope of new paths.
      */
-    private Tuple2<Long, Long> trim(Stack<TemporalEdge> stack) {
-        long start = 0, end = 0;
-        boolean init = true;
-        for (TemporalEdge next : stack) {
-            if (init) {
-                start = next.getValidFrom();
-                end = next.getValidTo();
-                init = false;
-            } else {
-                start = Math.max(start, next.getValidFrom());
-                end = Math.min(end, next.getValidTo());
+    private void merge(Diagram<Long, ComparableObject<Long, List<TemporalEdge>>> batch) {
+        if (batch.getData().size() <= 0) {
+            return;
+        }
+        diagram = diagram.getData().size() <= 0 ? batch : Diagram.merge(diagram, batch, Diagram.minimum());
+    }
+
+    /**
+     * Vertices and time span of a partial path, used by Engine.PARETO to search paths over parallel edges once.
+     */
+    private static final class PathLabel {
+        private final int[] vertices;
+        private final long from;
+        private final long to;
+
+        /**
+         * Constructor of PathLabel
+         * @param index Index of the graph.
+         * @param path Indices of the edges of the path.
+         * @param length Amount of edges of the path.
+         * @param from Start of the time span of the path.
+         * @param to End of the time span of the path.
+         */
+        private PathLabel(TemporalGraphIndex index, int[] path, int length, long from, long to) {
+            vertices = new int[length];
+            for (int i = 0; i < length; i++) {
+                vertices[i] = index.target(path[i]);
+            }
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PathLabel)) {
+                return false;
             }
+            PathLabel other = (PathLabel)o;
+            return from == other.from && to == other.to && Arrays.equals(vertices, other.vertices);
         }
 
-        return new Tuple2<>(start, end);
+        @Override
+        public int hashCode() {
+            return Objects.hash(Arrays.hashCode(vertices), from, to);
+        }
     }
 
     public static void main(String[] args) {
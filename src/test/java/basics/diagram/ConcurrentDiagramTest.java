@@ -0,0 +1,68 @@
+package basics.diagram;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentDiagramTest {
+    @Test
+    public void testInsertAcrossStripes() {
+        ConcurrentDiagram<Integer> diagram = new ConcurrentDiagram<>(null, 4L);
+        diagram.insertMin(3L, 10L, 3);
+        diagram.insertMin(5L, 8L, 2);
+
+        TreeMap<Long, Integer> data = diagram.toDiagram().getData();
+
+        int expectedSize = 4;
+        assertEquals("Size should be " + expectedSize + " but is " + data.size(), expectedSize, data.size());
+        assertEquals("Y at X=3 should be 3.", new Integer(3), data.get(3L));
+        assertEquals("Y at X=5 should be 2.", new Integer(2), data.get(5L));
+        assertEquals("Y at X=8 should be 3.", new Integer(3), data.get(8L));
+        assertTrue("Y at X=10 should exist and be null.", data.containsKey(10L) && data.get(10L) == null);
+        assertEquals("Y at X=9 should be 3.", new Integer(3), diagram.at(9L));
+        assertNull("Y at X=12 should be null.", diagram.at(12L));
+    }
+
+    @Test
+    public void testParallelInserts() throws InterruptedException {
+        ConcurrentDiagram<Integer> concurrent = new ConcurrentDiagram<>(null, 16L);
+        Diagram<Long, Integer> sequential = new Diagram<>(null);
+        List<long[]> intervals = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 4000; i++) {
+            long from = random.nextInt(1000);
+            long to = from + 1 + random.nextInt(50);
+            intervals.add(new long[] {from, to, 1 + random.nextInt(10)});
+            sequential.insertMin(from, to, (int)intervals.get(i)[2]);
+        }
+
+        int amountThreads = 8;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < amountThreads; t++) {
+            final int offset = t;
+            Thread thread = new Thread(() -> {
+                for (int i = offset; i < intervals.size(); i += amountThreads) {
+                    long[] interval = intervals.get(i);
+                    concurrent.insertMin(interval[0], interval[1], (int)interval[2]);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(sequential.getData(), concurrent.toDiagram().getData());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStripeWidth() {
+        new ConcurrentDiagram<Integer>(null, 0L);
+    }
+}
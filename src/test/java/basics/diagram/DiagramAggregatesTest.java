@@ -0,0 +1,93 @@
+package basics.diagram;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DiagramAggregatesTest {
+    /**
+     *      [---3---)
+     * [===2===)         [=1=)
+     */
+    @Test
+    public void testAggregates() {
+        Diagram<Long, Integer> diagram = new Diagram<>(null);
+        diagram.insertMin(5L, 10L, 3);
+        diagram.insertMin(3L, 7L, 2);
+        diagram.insertMin(12L, 14L, 1);
+        DiagramAggregates<Long, Integer> aggregates = diagram.aggregate();
+
+        assertEquals(4 * 2 + 3 * 3 + 2 * 1, aggregates.integral(0L, 20L), 0);
+        assertEquals(9, aggregates.coverage(0L, 20L), 0);
+        assertEquals(19.0 / 9.0, aggregates.mean(0L, 20L), 1e-12);
+        assertEquals(new Integer(1), aggregates.min(0L, 20L));
+        assertEquals(new Integer(3), aggregates.max(0L, 20L));
+        assertEquals(new Integer(2), aggregates.min(6L, 8L));
+        assertEquals(new Integer(3), aggregates.max(8L, 13L));
+        assertNull(aggregates.min(10L, 12L));
+        assertTrue(Double.isNaN(aggregates.mean(20L, 30L)));
+    }
+
+    @Test
+    public void testDefaultValue() {
+        Diagram<Long, Short> diagram = new Diagram<>((short)0);
+        diagram.insertMax(10L, 20L, (short)1);
+        DiagramAggregates<Long, Short> aggregates = diagram.aggregate();
+
+        assertEquals(0.25, aggregates.mean(0L, 40L), 0);
+        assertEquals(new Short((short)0), aggregates.min(-5L, 15L));
+        assertEquals(new Short((short)1), aggregates.max(-5L, 15L));
+        assertEquals(new Short((short)0), new Diagram<Long, Short>((short)0).aggregate().max(1L, 2L));
+    }
+
+    @Test
+    public void testInvalidation() {
+        Diagram<Long, Integer> diagram = new Diagram<>(null);
+        diagram.insertMin(0L, 10L, 5);
+        DiagramAggregates<Long, Integer> aggregates = diagram.aggregate();
+        assertSame(aggregates, diagram.aggregate());
+
+        diagram.insertMin(2L, 4L, 1);
+
+        assertEquals(50, aggregates.integral(0L, 10L), 0);
+        assertEquals(42, diagram.aggregate().integral(0L, 10L), 0);
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(7);
+        for (int run = 0; run < 50; run++) {
+            Diagram<Long, Integer> diagram = new Diagram<>(random.nextBoolean() ? null : 4);
+            for (int i = 0; i < 30; i++) {
+                long from = random.nextInt(100);
+                diagram.insertMin(from, from + 1 + random.nextInt(20), random.nextInt(10));
+            }
+            DiagramAggregates<Long, Integer> aggregates = diagram.aggregate();
+            for (int q = 0; q < 50; q++) {
+                long from = random.nextInt(140) - 20;
+                long to = from + 1 + random.nextInt(60);
+                double integral = 0;
+                Integer min = null;
+                Integer max = null;
+                for (long x = from; x < to; x++) {
+                    Integer value = diagram.at(x);
+                    if (value != null) {
+                        integral += value;
+                        min = min == null || value < min ? value : min;
+                        max = max == null || value > max ? value : max;
+                    }
+                }
+                assertEquals(integral, aggregates.integral(from, to), 1e-9);
+                assertEquals(min, aggregates.min(from, to));
+                assertEquals(max, aggregates.max(from, to));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() {
+        new Diagram<Long, Integer>(null).aggregate().min(5L, 5L);
+    }
+}
@@ -0,0 +1,84 @@
+package basics.diagram;
+
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class DiagramBuildTest {
+    @Test
+    public void testBuildMin() {
+        List<Tuple3<Long, Long, Integer>> intervals = new ArrayList<>();
+        intervals.add(new Tuple3<>(4L, 13L, 5));
+        intervals.add(new Tuple3<>(12L, 25L, 3));
+        intervals.add(new Tuple3<>(9L, 18L, 4));
+        intervals.add(new Tuple3<>(8L, 19L, 2));
+        intervals.add(new Tuple3<>(12L, 27L, 5));
+        intervals.add(new Tuple3<>(30L, 42L, 4));
+        intervals.add(new Tuple3<>(21L, 35L, 3));
+
+        TreeMap<Long, Integer> data = Diagram.buildMin(intervals, (Integer)null).getData();
+
+        int expectedSize = 5;
+        assertEquals("Size should be " + expectedSize + " but is " + data.size(), expectedSize, data.size());
+        assertEquals("Y at X=4 should be 5.", new Integer(5), data.get(4L));
+        assertEquals("Y at X=8 should be 2.", new Integer(2), data.get(8L));
+        assertEquals("Y at X=19 should be 3.", new Integer(3), data.get(19L));
+        assertEquals("Y at X=35 should be 4.", new Integer(4), data.get(35L));
+        assertTrue("Y at X=42 should exist and be null.", data.containsKey(42L) && data.get(42L) == null);
+    }
+
+    /**
+     * [---1---)     [---1---)
+     *     [===2==============)
+     */
+    @Test
+    public void testBuildMax() {
+        List<Tuple3<Long, Long, Integer>> intervals = new ArrayList<>();
+        intervals.add(new Tuple3<>(1L, 5L, 1));
+        intervals.add(new Tuple3<>(10L, 15L, 1));
+        intervals.add(new Tuple3<>(3L, 20L, 2));
+
+        Diagram<Long, Integer> expected = new Diagram<>(null);
+        for (Tuple3<Long, Long, Integer> interval : intervals) {
+            expected.insertMax(interval.f0, interval.f1, interval.f2);
+        }
+
+        assertEquals(expected.getData(), Diagram.buildMax(intervals, (Integer)null).getData());
+    }
+
+    @Test
+    public void testBuildMinPrimitive() {
+        IntIntervals intervals = new IntIntervals();
+        intervals.add(5L, 10L, 3);
+        intervals.add(3L, 7L, 2);
+        intervals.add(20L, 30L, 1);
+
+        IntDiagram diagram = IntDiagram.buildMin(intervals, IntDiagram.NULL);
+
+        int expectedSize = 5;
+        assertEquals("Size should be " + expectedSize + " but is " + diagram.size(), expectedSize, diagram.size());
+        assertEquals("Y at X=3 should be 2.", 2, diagram.at(3L));
+        assertEquals("Y at X=7 should be 3.", 3, diagram.at(7L));
+        assertEquals("Y at X=15 should be null.", IntDiagram.NULL, diagram.at(15L));
+        assertEquals("Y at X=20 should be 1.", 1, diagram.at(20L));
+        assertEquals("Y at X=30 should be null.", IntDiagram.NULL, diagram.at(30L));
+    }
+
+    @Test
+    public void testBuildEmpty() {
+        assertEquals(0, Diagram.buildMin(new ArrayList<Tuple3<Long, Long, Integer>>(), (Integer)null).getData().size());
+        assertEquals(0, IntDiagram.buildMax(new IntIntervals(), IntDiagram.NULL).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildInvalid() {
+        List<Tuple3<Long, Long, Integer>> intervals = new ArrayList<>();
+        intervals.add(new Tuple3<>(5L, 5L, 1));
+        Diagram.buildMin(intervals, (Integer)null);
+    }
+}
@@ -0,0 +1,89 @@
+package basics.diagram;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import static org.junit.Assert.*;
+
+public class DiagramCodecTest {
+    private static <X extends Number & Comparable, Y extends Comparable> Diagram<X, Y> roundTrip(Diagram<X, Y> diagram) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DiagramCodec.write(diagram, Channels.newChannel(out));
+        return DiagramCodec.read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void testRoundTripInteger() throws IOException {
+        Diagram<Long, Integer> diagram = new Diagram<>(null);
+        diagram.insertMin(-5L, 10L, 3);
+        diagram.insertMin(20L, 30L, 1);
+        diagram.insertMin(1000000000000L, 1000000000005L, 7);
+
+        Diagram<Long, Integer> copy = roundTrip(diagram);
+
+        assertEquals(diagram.getData(), copy.getData());
+        assertNull(copy.getDefaultValue());
+        assertTrue("Y at X=10 should exist and be null.", copy.getData().containsKey(10L) && copy.getData().get(10L) == null);
+    }
+
+    @Test
+    public void testRoundTripDouble() throws IOException {
+        Diagram<Long, Double> diagram = new Diagram<>(0.0);
+        for (long i = 0; i < 5000; i++) {
+            diagram.insertMax(i * 3, i * 3 + 2, i / 7.0);
+        }
+
+        Diagram<Long, Double> copy = roundTrip(diagram);
+
+        assertEquals(diagram.getData(), copy.getData());
+        assertEquals(new Double(0.0), copy.getDefaultValue());
+    }
+
+    @Test
+    public void testRoundTripEmpty() throws IOException {
+        Diagram<Long, Short> copy = roundTrip(new Diagram<Long, Short>((short)0));
+
+        assertEquals(0, copy.getData().size());
+        assertEquals(new Short((short)0), copy.getDefaultValue());
+    }
+
+    @Test
+    public void testConsecutiveDiagrams() throws IOException {
+        Diagram<Long, Double> first = new Diagram<>(0.0);
+        for (long i = 0; i < 5000; i++) {
+            first.insertMax(i * 3, i * 3 + 2, i / 7.0);
+        }
+        Diagram<Long, String> second = new Diagram<>(null);
+        second.insertMin(1L, 4L, "a");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DiagramCodec.write(first, Channels.newChannel(out));
+        DiagramCodec.write(second, Channels.newChannel(out));
+        out.write(42);
+
+        // The reads only consume the bytes of their diagram.
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(first.getData(), DiagramCodec.<Long, Double>read(channel).getData());
+        assertEquals(second.getData(), DiagramCodec.<Long, String>read(channel).getData());
+        ByteBuffer rest = ByteBuffer.allocate(2);
+        assertEquals(1, channel.read(rest));
+        assertEquals(42, rest.get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedValue() throws IOException {
+        Diagram<Long, Boolean> diagram = new Diagram<>(null);
+        diagram.insertMin(1L, 2L, true);
+        DiagramCodec.write(diagram, Channels.newChannel(new ByteArrayOutputStream()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidInput() throws IOException {
+        DiagramCodec.read(Channels.newChannel(new ByteArrayInputStream("Time;Metric".getBytes())));
+    }
+}
@@ -0,0 +1,96 @@
+package basics.diagram;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DiagramDownsampleTest {
+    /**
+     *  [-3-)[-1-)   [---4---)
+     * |0 . . . . |10 . . . .|20
+     */
+    @Test
+    public void testDownsampleMin() {
+        IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+        diagram.insertMin(2L, 4L, 3);
+        diagram.insertMin(4L, 6L, 1);
+        diagram.insertMin(13L, 25L, 4);
+
+        diagram.downsample(10L, Compaction.MIN);
+
+        assertEquals("Size should be 3 but is " + diagram.size(), 3, diagram.size());
+        assertEquals("Y at X=0 should be 1.", 1, diagram.at(0L));
+        assertEquals("Y at X=10 should be 4.", 4, diagram.at(10L));
+        assertEquals("Y at X=30 should be null.", IntDiagram.NULL, diagram.at(30L));
+    }
+
+    @Test
+    public void testDownsampleFirst() {
+        ShortDiagram diagram = new ShortDiagram((short)0);
+        diagram.insertMax(5L, 25L, (short)1);
+
+        diagram.downsample(10L, Compaction.FIRST);
+
+        assertEquals(0, diagram.at(5L));
+        assertEquals(1, diagram.at(10L));
+        assertEquals(1, diagram.at(29L));
+        assertEquals(0, diagram.at(30L));
+    }
+
+    @Test
+    public void testDownsampleRandom() {
+        Random random = new Random(3);
+        Compaction[] policies = Compaction.values();
+        for (int run = 0; run < 200; run++) {
+            IntDiagram diagram = new IntDiagram(random.nextBoolean() ? IntDiagram.NULL : 6);
+            for (int i = 0; i < 20; i++) {
+                long from = random.nextInt(200) - 50;
+                diagram.insertMin(from, from + 1 + random.nextInt(30), random.nextInt(10));
+            }
+            long resolution = 1 + random.nextInt(12);
+            Compaction policy = policies[random.nextInt(policies.length)];
+            IntDiagram compacted = IntDiagram.merge(diagram, new IntDiagram(IntDiagram.NULL), IntDiagram.MIN);
+            compacted.downsample(resolution, policy);
+
+            for (int i = 0; i < compacted.size(); i++) {
+                assertEquals(0, Math.floorMod(compacted.keyAt(i), resolution));
+            }
+            for (long x = -70; x < 250; x++) {
+                long start = Math.floorDiv(x, resolution) * resolution;
+                int expected = diagram.at(start);
+                for (long y = start + 1; policy != Compaction.FIRST && y < start + resolution; y++) {
+                    expected = (policy == Compaction.MIN ? IntDiagram.MIN : IntDiagram.MAX).applyAsInt(expected, diagram.at(y));
+                }
+                assertEquals("Y at X=" + x + " differs.", expected, compacted.at(x));
+            }
+        }
+    }
+
+    @Test
+    public void testCompactionOnInsert() {
+        Random random = new Random(5);
+        for (int run = 0; run < 200; run++) {
+            long resolution = 1 + random.nextInt(12);
+            IntDiagram expected = new IntDiagram(IntDiagram.NULL);
+            IntDiagram compacted = new IntDiagram(IntDiagram.NULL);
+            compacted.setCompaction(resolution, Compaction.MIN);
+            for (int i = 0; i < 20; i++) {
+                long from = random.nextInt(200) - 50;
+                long to = from + 1 + random.nextInt(30);
+                int value = random.nextInt(10);
+                expected.insertMin(from, to, value);
+                compacted.insertMin(from, to, value);
+            }
+            expected.downsample(resolution, Compaction.MIN);
+
+            assertEquals(expected.toDiagram().getData(), compacted.toDiagram().getData());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResolution() {
+        new IntDiagram(IntDiagram.NULL).downsample(0L, Compaction.MIN);
+    }
+}
@@ -0,0 +1,78 @@
+package basics.diagram;
+
+import org.junit.Test;
+
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class DiagramMergeTest {
+    /**
+     *      [---3---)
+     * [===2===)
+     */
+    @Test
+    public void testMergeMin() {
+        Diagram<Long, Integer> a = new Diagram<>(null);
+        a.insertMin(5L, 10L, 3);
+        Diagram<Long, Integer> b = new Diagram<>(null);
+        b.insertMin(3L, 7L, 2);
+
+        TreeMap<Long, Integer> data = Diagram.merge(a, b, Diagram.minimum()).getData();
+
+        int expectedSize = 3;
+        assertEquals("Size should be " + expectedSize + " but is " + data.size(), expectedSize, data.size());
+        assertEquals("Y at X=3 should be 2.", new Integer(2), data.get(3L));
+        assertEquals("Y at X=7 should be 3.", new Integer(3), data.get(7L));
+        assertTrue("Y at X=10 should exist and be null.", data.containsKey(10L) && data.get(10L) == null);
+    }
+
+    @Test
+    public void testMergeMax() {
+        Diagram<Long, Integer> a = new Diagram<>(null);
+        a.insertMax(3L, 10L, 2);
+        Diagram<Long, Integer> b = new Diagram<>(null);
+        b.insertMax(5L, 8L, 2);
+
+        TreeMap<Long, Integer> data = Diagram.merge(a, b, Diagram.maximum()).getData();
+
+        int expectedSize = 2;
+        assertEquals("Size should be " + expectedSize + " but is " + data.size(), expectedSize, data.size());
+        assertEquals("Y at X=3 should be 2.", new Integer(2), data.get(3L));
+        assertTrue("Y at X=10 should exist and be null.", data.containsKey(10L) && data.get(10L) == null);
+    }
+
+    @Test
+    public void testMergeSumPrimitive() {
+        DoubleDiagram a = new DoubleDiagram(DoubleDiagram.NULL);
+        a.insertMax(0L, 10L, 0.25);
+        DoubleDiagram b = new DoubleDiagram(DoubleDiagram.NULL);
+        b.insertMax(5L, 20L, 0.5);
+
+        DoubleDiagram sum = DoubleDiagram.merge(a, b, DoubleDiagram.SUM);
+
+        assertEquals("Size should be 4 but is " + sum.size(), 4, sum.size());
+        assertEquals(0.25, sum.at(0L), 0);
+        assertEquals(0.75, sum.at(5L), 0);
+        assertEquals(0.5, sum.at(10L), 0);
+        assertTrue("Y at X=20 should be null.", DoubleDiagram.isNull(sum.at(20L)));
+    }
+
+    @Test
+    public void testMergeMinPrimitive() {
+        IntDiagram a = new IntDiagram(IntDiagram.NULL);
+        a.insertMin(4L, 13L, 5);
+        a.insertMin(30L, 42L, 4);
+        IntDiagram b = new IntDiagram(IntDiagram.NULL);
+        b.insertMin(8L, 19L, 2);
+        b.insertMin(21L, 35L, 3);
+
+        IntDiagram expected = new IntDiagram(IntDiagram.NULL);
+        expected.insertMin(4L, 13L, 5);
+        expected.insertMin(30L, 42L, 4);
+        expected.insertMin(8L, 19L, 2);
+        expected.insertMin(21L, 35L, 3);
+
+        assertEquals(expected.toDiagram().getData(), IntDiagram.merge(a, b, IntDiagram.MIN).toDiagram().getData());
+    }
+}
@@ -0,0 +1,63 @@
+package basics.diagram;
+
+import org.junit.Test;
+
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class DiagramSnapshotTest {
+    @Test
+    public void testSnapshotIsFrozen() {
+        Diagram<Long, Integer> diagram = new Diagram<>(null);
+        diagram.insertMin(3L, 10L, 3);
+        Diagram<Long, Integer> snapshot = diagram.snapshot();
+        diagram.insertMin(5L, 8L, 2);
+
+        TreeMap<Long, Integer> data = snapshot.getData();
+
+        int expectedSize = 2;
+        assertEquals("Size should be " + expectedSize + " but is " + data.size(), expectedSize, data.size());
+        assertEquals("Y at X=5 should be 3.", new Integer(3), snapshot.at(5L));
+        assertEquals("Y at X=5 should be 2.", new Integer(2), diagram.at(5L));
+        assertTrue(snapshot.isSnapshot());
+        assertFalse(diagram.isSnapshot());
+    }
+
+    @Test
+    public void testSnapshotWithoutChanges() {
+        Diagram<Long, Integer> diagram = new Diagram<>(null);
+        diagram.insertMin(3L, 10L, 3);
+
+        assertSame(diagram.snapshot(), diagram.snapshot());
+        Diagram<Long, Integer> snapshot = diagram.snapshot();
+        diagram.insertMin(5L, 8L, 2);
+        assertNotSame(snapshot, diagram.snapshot());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotInsert() {
+        Diagram<Long, Integer> diagram = new Diagram<>(null);
+        diagram.snapshot().insertMin(3L, 10L, 3);
+    }
+
+    @Test
+    public void testPrimitiveSnapshotIsFrozen() {
+        IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+        diagram.insertMin(3L, 10L, 3);
+        IntDiagram snapshot = diagram.snapshot();
+        diagram.insertMin(5L, 8L, 2);
+        diagram.insertMin(20L, 30L, 1);
+
+        assertEquals("Size should be 2 but is " + snapshot.size(), 2, snapshot.size());
+        assertEquals("Y at X=5 should be 3.", 3, snapshot.at(5L));
+        assertEquals("Y at X=20 should be null.", IntDiagram.NULL, snapshot.at(20L));
+        assertEquals("Y at X=5 should be 2.", 2, diagram.at(5L));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPrimitiveSnapshotInsert() {
+        ShortDiagram diagram = new ShortDiagram((short)0);
+        diagram.snapshot().insertMax(3L, 10L, (short)1);
+    }
+}
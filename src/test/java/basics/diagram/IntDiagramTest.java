@@ -0,0 +1,148 @@
+package basics.diagram;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class IntDiagramTest {
+    @Test
+    public void testSingleInsert() {
+        IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+        diagram.insertMin(3L, 10L, 1);
+
+        assertEquals("Size should be 2 but is " + diagram.size(), 2, diagram.size());
+        assertEquals("Y at X=3 should be 1.", 1, diagram.at(3L));
+        assertEquals("Y at X=10 should be null.", IntDiagram.NULL, diagram.at(10L));
+        assertEquals("Y at X=2 should be null.", IntDiagram.NULL, diagram.at(2L));
+    }
+
+    /**
+     *      [===3===)
+     * [---2-----------)
+     */
+    @Test
+    public void testInsertWorseInside() {
+        IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+        diagram.insertMin(3L, 10L, 2);
+        diagram.insertMin(5L, 8L, 3);
+
+        assertEquals("Size should be 2 but is " + diagram.size(), 2, diagram.size());
+        assertEquals("Y at X=6 should be 2.", 2, diagram.at(6L));
+    }
+
+    /**
+     * [===3============)
+     *      [---2---)
+     */
+    @Test
+    public void testInsertMaxAround() {
+        IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+        diagram.insertMax(5L, 8L, 2);
+        diagram.insertMax(3L, 10L, 3);
+
+        assertEquals("Size should be 2 but is " + diagram.size(), 2, diagram.size());
+        assertEquals("Y at X=5 should be 3.", 3, diagram.at(5L));
+        assertEquals("Y at X=10 should be null.", IntDiagram.NULL, diagram.at(10L));
+    }
+
+    @Test
+    public void testMultipleInserts() {
+        IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+        diagram.insertMin(4L, 13L, 5);
+        diagram.insertMin(12L, 25L, 3);
+        diagram.insertMin(9L, 18L, 4);
+        diagram.insertMin(8L, 19L, 2);
+        diagram.insertMin(12L, 27L, 5);
+        diagram.insertMin(30L, 42L, 4);
+        diagram.insertMin(21L, 35L, 3);
+
+        TreeMap<Long, Integer> data = diagram.toDiagram().getData();
+
+        assertEquals("Size should be 5 but is " + data.size(), 5, data.size());
+        assertEquals("Y at X=4 should be 5.", new Integer(5), data.get(4L));
+        assertEquals("Y at X=8 should be 2.", new Integer(2), data.get(8L));
+        assertEquals("Y at X=19 should be 3.", new Integer(3), data.get(19L));
+        assertEquals("Y at X=35 should be 4.", new Integer(4), data.get(35L));
+        assertTrue("Y at X=42 should exist and be null.", data.containsKey(42L) && data.get(42L) == null);
+    }
+
+    @Test
+    public void testForEach() {
+        IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+        diagram.insertMin(4L, 13L, 5);
+        diagram.insertMin(8L, 19L, 2);
+
+        List<Long> keys = new ArrayList<>();
+        diagram.forEach(5L, 19L, (x, y) -> keys.add(x));
+
+        assertEquals("Keys between 5 and 19 should be [8, 19].", 2, keys.size());
+        assertEquals(new Long(8), keys.get(0));
+        assertEquals(new Long(19), keys.get(1));
+    }
+
+    @Test
+    public void testShortDefault() {
+        ShortDiagram diagram = new ShortDiagram((short)0);
+        diagram.insertMax(12L, 20L, (short)1);
+        diagram.insertMax(18L, 38L, (short)1);
+
+        TreeMap<Long, Short> data = diagram.toDiagram().getData();
+
+        assertEquals("Size should be 2 but is " + data.size(), 2, data.size());
+        assertEquals("Y at X=12 should be 1.", new Short((short)1), data.get(12L));
+        assertEquals("Y at X=38 should be 0.", new Short((short)0), data.get(38L));
+    }
+
+    @Test
+    public void testShortLowerBound() {
+        ShortDiagram diagram = new ShortDiagram((short)0);
+        diagram.insertMax(12L, 20L, (short)1);
+        diagram.insertMax(18L, 38L, (short)1);
+
+        assertEquals("Bound of [12, 38) should be 1.", 1, diagram.lowerBound(12L, 38L));
+        assertEquals("Bound of [15, 25) should be 1.", 1, diagram.lowerBound(15L, 25L));
+        assertEquals("Bound of [10, 20) should be 0.", 0, diagram.lowerBound(10L, 20L));
+        assertEquals("Bound of [30, 40) should be 0.", 0, diagram.lowerBound(30L, 40L));
+        assertEquals("Bound of [5, 10) should be 0.", 0, diagram.lowerBound(5L, 10L));
+    }
+
+    @Test
+    public void testDoubleNull() {
+        DoubleDiagram diagram = new DoubleDiagram(DoubleDiagram.NULL);
+        diagram.insertMin(2L, 5L, 0.5);
+
+        TreeMap<Long, Double> data = diagram.toDiagram().getData();
+
+        assertEquals("Y at X=2 should be 0.5.", new Double(0.5), data.get(2L));
+        assertTrue("Y at X=5 should exist and be null.", data.containsKey(5L) && data.get(5L) == null);
+        assertTrue("Y at X=1 should be null.", DoubleDiagram.isNull(diagram.at(1L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertInvalid() {
+        IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+        diagram.insertMin(5L, 5L, 2);
+    }
+
+    /**
+     * [---2---)[===5===)   [---1---)
+     */
+    @Test
+    public void testUpperBound() {
+        IntDiagram diagram = new IntDiagram(IntDiagram.NULL);
+        diagram.insertMin(0L, 10L, 2);
+        diagram.insertMin(10L, 20L, 5);
+        diagram.insertMin(30L, 40L, 1);
+
+        assertEquals("Bound of [2, 8) should be 2.", 2, diagram.upperBound(2L, 8L));
+        assertEquals("Bound of [5, 15) should be 5.", 5, diagram.upperBound(5L, 15L));
+        assertEquals("Bound of [0, 10) should be 2.", 2, diagram.upperBound(0L, 10L));
+        assertEquals("Bound of [15, 35) should be null.", IntDiagram.NULL, diagram.upperBound(15L, 35L));
+        assertEquals("Bound of [-5, 5) should be null.", IntDiagram.NULL, diagram.upperBound(-5L, 5L));
+        assertEquals("Bound of [30, 40) should be 1.", 1, diagram.upperBound(30L, 40L));
+    }
+}
@@ -0,0 +1,84 @@
+package basics.diagram;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MappedDiagramTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     *      [---3---)
+     * [===2===)
+     */
+    @Test
+    public void testInsertMin() throws IOException {
+        try (MappedDiagram diagram = MappedDiagram.create(folder.newFile().toPath(), MappedDiagram.NULL)) {
+            diagram.insertMin(5L, 10L, 3L);
+            diagram.insertMin(3L, 7L, 2L);
+
+            assertEquals("Size should be 3 but is " + diagram.size(), 3, diagram.size());
+            assertEquals("Y at X=3 should be 2.", 2L, diagram.at(3L));
+            assertEquals("Y at X=7 should be 3.", 3L, diagram.at(7L));
+            assertEquals("Y at X=10 should be null.", MappedDiagram.NULL, diagram.at(10L));
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        Path path = folder.newFile().toPath();
+        try (MappedDiagram diagram = MappedDiagram.create(path, 0L)) {
+            for (long i = 0; i < 3000; i++) {
+                diagram.insertMax(i * 4, i * 4 + 2, i + 1);
+            }
+        }
+        try (MappedDiagram diagram = MappedDiagram.open(path)) {
+            assertEquals(6000, diagram.size());
+            assertEquals(0L, diagram.getDefaultValue());
+            assertEquals(1000L, diagram.at(3997L));
+            assertEquals(0L, diagram.at(3998L));
+            diagram.insertMax(3998L, 3999L, 7L);
+            assertEquals(7L, diagram.at(3998L));
+        }
+    }
+
+    @Test
+    public void testRandom() throws IOException {
+        Random random = new Random(11);
+        try (MappedDiagram mapped = MappedDiagram.create(folder.newFile().toPath(), MappedDiagram.NULL)) {
+            IntDiagram expected = new IntDiagram(IntDiagram.NULL);
+            for (int i = 0; i < 5000; i++) {
+                long from = random.nextInt(20000);
+                long to = from + 1 + random.nextInt(200);
+                int value = random.nextInt(50);
+                if (random.nextBoolean()) {
+                    mapped.insertMin(from, to, value);
+                    expected.insertMin(from, to, value);
+                }
+                else {
+                    mapped.insertMax(from, to, value);
+                    expected.insertMax(from, to, value);
+                }
+            }
+
+            assertEquals(expected.size(), mapped.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.keyAt(i), mapped.keyAt(i));
+                long value = expected.valueAt(i) == IntDiagram.NULL ? MappedDiagram.NULL : expected.valueAt(i);
+                assertEquals(value, mapped.valueAt(i));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenInvalid() throws IOException {
+        MappedDiagram.open(folder.newFile().toPath());
+    }
+}
@@ -0,0 +1,132 @@
+package basics.graph;
+
+import basics.ComparableObject;
+import basics.diagram.Diagram;
+import importing.TestCSVLayout;
+import importing.TestDataImporter;
+import metrics.impl.HopCount.HopCount;
+import metrics.impl.TemporalConnectedness.TemporalConnectedness;
+import metrics.impl.TemporalShortestPath.TemporalShortestPath;
+import org.gradoop.common.model.impl.id.GradoopId;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
+import org.gradoop.temporal.model.impl.pojo.TemporalVertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class EdgeStoreTest {
+    private static final File GRAPH = new File("testgraphs/10nodes100edges.csv");
+    private TestCSVLayout layout;
+    private EdgeStore store;
+
+    @Before
+    public void setUp() {
+        layout = new TestCSVLayout();
+        layout.load(GRAPH);
+        store = new TestCSVLayout().loadEdgeStore(GRAPH);
+    }
+
+    @Test
+    public void testBridge() {
+        TestDataImporter importer = new TestDataImporter();
+        EdgeStore bridged = EdgeStore.of(importer);
+
+        assertEquals(importer.getVertices().size(), bridged.vertexCount());
+        assertEquals(importer.getEdges().size(), bridged.edgeCount());
+        for (int e = 0; e < bridged.edgeCount(); e++) {
+            TemporalEdge edge = importer.getEdges().get(e);
+            assertSame(edge, bridged.edge(e));
+            assertEquals(edge.getSourceId(), bridged.vertex(bridged.source(e)));
+            assertEquals(edge.getTargetId(), bridged.vertex(bridged.target(e)));
+            assertEquals(edge.getValidFrom().longValue(), bridged.validFrom(e));
+            assertEquals(edge.getValidTo().longValue(), bridged.validTo(e));
+            assertEquals(edge.getLabel(), bridged.label(e));
+        }
+    }
+
+    @Test
+    public void testLoad() {
+        List<TemporalVertex> vertices = layout.getVertices();
+        List<TemporalEdge> edges = layout.getEdges();
+
+        assertEquals(vertices.size(), store.vertexCount());
+        assertEquals(edges.size(), store.edgeCount());
+        for (int v = 0; v < store.vertexCount(); v++) {
+            assertEquals(vertices.get(v).getLabel(), store.vertexLabel(v));
+        }
+        for (int e = 0; e < store.edgeCount(); e++) {
+            assertEquals(label(edges.get(e).getSourceId()), store.vertexLabel(store.source(e)));
+            assertEquals(label(edges.get(e).getTargetId()), store.vertexLabel(store.target(e)));
+            assertEquals(edges.get(e).getValidFrom().longValue(), store.validFrom(e));
+            assertEquals(edges.get(e).getValidTo().longValue(), store.validTo(e));
+            assertEquals(edges.get(e).getLabel(), store.label(e));
+        }
+        assertEquals(edges.size(), store.labels().size());
+    }
+
+    @Test
+    public void testEdge() {
+        TemporalEdge edge = store.edge(3);
+
+        assertEquals(store.vertex(store.source(3)), edge.getSourceId());
+        assertEquals(store.vertex(store.target(3)), edge.getTargetId());
+        assertEquals(store.validFrom(3), edge.getValidFrom().longValue());
+        assertEquals(store.label(3), edge.getLabel());
+    }
+
+    @Test
+    public void testMetrics() {
+        String[][] pairs = {{"AA", "AB"}, {"AE", "AH"}, {"AJ", "AC"}};
+        for (String[] pair : pairs) {
+            GradoopId startId = vertex(pair[0]);
+            GradoopId endId = vertex(pair[1]);
+            GradoopId startStore = store.vertex(store.findVertex(pair[0]));
+            GradoopId endStore = store.vertex(store.findVertex(pair[1]));
+
+            HopCount hopCount = new HopCount(startId, endId);
+            hopCount.calculate(layout.getEdges());
+            HopCount hopCountStore = new HopCount(startStore, endStore);
+            hopCountStore.calculate(store);
+            assertEquals(hopCount.getData().getData(), hopCountStore.getData().getData());
+
+            TemporalConnectedness connectedness = new TemporalConnectedness(startId, endId);
+            connectedness.calculate(layout.getEdges());
+            TemporalConnectedness connectednessStore = new TemporalConnectedness(startStore, endStore);
+            connectednessStore.calculate(store);
+            assertEquals(connectedness.getData().getData(), connectednessStore.getData().getData());
+
+            TemporalShortestPath shortestPath = new TemporalShortestPath(startId, endId);
+            shortestPath.calculate(layout.getEdges());
+            TemporalShortestPath shortestPathStore = new TemporalShortestPath(startStore, endStore);
+            shortestPathStore.calculate(store);
+            assertEquals(durations(shortestPath.getData()), durations(shortestPathStore.getData()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownVertex() {
+        new EdgeStore().addEdge(0, 1, 0, 1, null);
+    }
+
+    private GradoopId vertex(String label) {
+        return layout.getVertices().stream().filter(v -> v.getLabel().equals(label)).findFirst().get().getId();
+    }
+
+    private String label(GradoopId id) {
+        return layout.getVertices().stream().filter(v -> v.getId().equals(id)).findFirst().get().getLabel();
+    }
+
+    private static TreeMap<Long, Long> durations(Diagram<Long, ComparableObject<Long, List<TemporalEdge>>> diagram) {
+        TreeMap<Long, Long> result = new TreeMap<>();
+        for (Map.Entry<Long, ComparableObject<Long, List<TemporalEdge>>> entry : diagram.getData().entrySet()) {
+            result.put(entry.getKey(), entry.getValue() == null ? null : entry.getValue().getNumber());
+        }
+        return result;
+    }
+}
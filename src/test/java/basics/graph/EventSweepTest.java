@@ -0,0 +1,45 @@
+package basics.graph;
+
+import org.gradoop.common.model.impl.id.GradoopId;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdgeFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EventSweepTest {
+    @Test
+    public void testSnapshots() {
+        TemporalEdgeFactory factory = new TemporalEdgeFactory();
+        GradoopId a = GradoopId.get();
+        GradoopId b = GradoopId.get();
+        long[][] times = {{0, 10}, {5, 15}, {20, 25}, {7, 7}};
+        List<TemporalEdge> edges = new ArrayList<>();
+        for (long[] time : times) {
+            TemporalEdge edge = factory.createEdge(a, b);
+            edge.setValidFrom(time[0]);
+            edge.setValidTo(time[1]);
+            edges.add(edge);
+        }
+        TemporalGraphIndex index = new TemporalGraphIndex(edges);
+        EventSweep sweep = new EventSweep(index);
+        List<String> snapshots = new ArrayList<>();
+        sweep.run(new EventSweep.Listener() {
+            @Override
+            public void snapshot(long from, long to) {
+                StringBuilder valid = new StringBuilder();
+                for (int e = 0; e < index.edgeCount(); e++) {
+                    valid.append(sweep.isValid(e) ? e : "");
+                }
+                snapshots.add(from + "-" + to + ":" + valid);
+            }
+        });
+
+        // [15, 20) has no valid edge and the edge [7, 7) is never valid.
+        assertEquals("[0-5:0, 5-10:01, 10-15:1, 20-25:2]", snapshots.toString());
+        assertEquals(5, sweep.snapshots());
+    }
+}
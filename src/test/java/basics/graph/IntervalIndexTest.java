@@ -0,0 +1,77 @@
+package basics.graph;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntervalIndexTest {
+    /**
+     * 0 [----)
+     * 1    [------)
+     * 2              [--)
+     * 3 [----------------)
+     */
+    @Test
+    public void testQueries() {
+        IntervalIndex<Integer> index = new IntervalIndex<>();
+        index.insert(0L, 5L, 0);
+        index.insert(3L, 10L, 1);
+        index.insert(14L, 17L, 2);
+        index.insert(0L, 18L, 3);
+
+        assertEquals(Arrays.asList(0, 1, 3), index.overlapping(4L, 6L));
+        assertEquals(Arrays.asList(1, 3), index.overlapping(5L, 14L));
+        assertEquals(Arrays.asList(0, 2), index.disjoint(6L, 12L));
+        assertEquals(Arrays.asList(2), index.disjoint(5L, 10L));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testDisjointOnce() {
+        IntervalIndex<Integer> index = new IntervalIndex<>();
+        index.insert(6L, 8L, 0);
+        index.insert(9L, 2L, 1);
+        index.insert(0L, 3L, 2);
+
+        // [6, 8) ends before 10 and starts after 5, but is returned once.
+        assertEquals(Arrays.asList(0, 1, 2), index.disjoint(10L, 5L));
+        // The reversed interval [9, 2) ends before 3 and starts after 4.
+        assertEquals(Arrays.asList(0, 1), index.disjoint(3L, 4L));
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(9);
+        IntervalIndex<Integer> index = new IntervalIndex<>();
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long from = random.nextInt(1000);
+            long to = from + 1 + random.nextInt(100);
+            index.insert(from, to, i);
+            intervals.add(new long[] {from, to});
+
+            if (i % 50 == 0) {
+                long a = random.nextInt(1100) - 50;
+                long b = a + random.nextInt(100);
+                List<Integer> overlapping = new ArrayList<>();
+                List<Integer> disjoint = new ArrayList<>();
+                for (int j = 0; j < intervals.size(); j++) {
+                    long[] interval = intervals.get(j);
+                    if (interval[0] < b && interval[1] > a) {
+                        overlapping.add(j);
+                    }
+                    if (interval[0] > b || interval[1] < a) {
+                        disjoint.add(j);
+                    }
+                }
+                assertEquals(overlapping, index.overlapping(a, b));
+                assertEquals(disjoint, index.disjoint(a, b));
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package basics.graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParetoFrontierTest {
+    @Test
+    public void testDominated() {
+        ParetoFrontier frontier = new ParetoFrontier(2);
+
+        assertTrue(frontier.add(0, 0L, 10L, 2));
+        assertFalse("Narrower span and more hops", frontier.add(0, 2L, 8L, 3));
+        assertFalse("Same label", frontier.add(0, 0L, 10L, 2));
+        assertTrue("Fewer hops", frontier.add(0, 2L, 8L, 1));
+        assertTrue("Wider span", frontier.add(0, 0L, 12L, 3));
+        assertTrue("Other vertex", frontier.add(1, 2L, 8L, 3));
+    }
+
+    @Test
+    public void testRemovesDominated() {
+        ParetoFrontier frontier = new ParetoFrontier(1);
+        frontier.add(0, 2L, 8L, 3);
+        frontier.add(0, 4L, 12L, 3);
+        frontier.add(0, 20L, 30L, 1);
+
+        assertTrue(frontier.add(0, 0L, 15L, 2));
+        // The new label replaced the first two labels.
+        assertFalse(frontier.add(0, 4L, 10L, 2));
+        assertFalse(frontier.add(0, 22L, 28L, 1));
+        assertTrue(frontier.add(0, 0L, 15L, 1));
+    }
+}
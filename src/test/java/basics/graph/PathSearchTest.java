@@ -0,0 +1,152 @@
+package basics.graph;
+
+import org.gradoop.common.model.impl.id.GradoopId;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdgeFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PathSearchTest {
+    private final Map<String, GradoopId> ids = new HashMap<>();
+
+    @Test
+    public void testAllPaths() {
+        TemporalGraphIndex index = build("AB", "AC", "BC", "CD", "BD");
+        PathSearch search = new PathSearch(index);
+        List<String> paths = run(search, index, "A", "D");
+
+        assertEquals("[AB BC CD, AB BD, AC CD]", paths.toString());
+        // The visited vertices are cleared after a run, so the search can be reused.
+        assertEquals(paths, run(search, index, "A", "D"));
+    }
+
+    @Test
+    public void testSkipsSiblingsAfterDestination() {
+        TemporalGraphIndex index = build("AB", "BD", "BC", "CD", "AD", "AC");
+        List<String> paths = run(new PathSearch(index), index, "A", "D");
+
+        // B -> D ends the successors of A B, A -> D ends the successors of A.
+        assertEquals("[AB BD, AD]", paths.toString());
+    }
+
+    @Test
+    public void testVisitsAllSiblings() {
+        TemporalGraphIndex index = build("AB", "BD", "BC", "CD", "AD", "AC");
+        List<String> paths = new ArrayList<>();
+        new PathSearch(index).run(index.vertexId(ids.get("A")), index.vertexId(ids.get("D")), new PathSearch.Rules() {
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return true;
+            }
+
+            @Override
+            public boolean skipsSiblings() {
+                return false;
+            }
+
+            @Override
+            public void found(int[] path, int length, long from, long to) {
+                StringBuilder labels = new StringBuilder();
+                for (int i = 0; i < length; i++) {
+                    labels.append(i > 0 ? " " : "").append(index.edge(path[i]).getLabel());
+                }
+                paths.add(labels.toString());
+            }
+        });
+
+        assertEquals("[AB BD, AB BC CD, AD, AC CD]", paths.toString());
+    }
+
+    @Test
+    public void testExplores() {
+        TemporalGraphIndex index = build("AB", "AC", "BC", "CD", "BD");
+        int vertexB = index.vertexId(ids.get("B"));
+        List<String> paths = new ArrayList<>();
+        new PathSearch(index).run(index.vertexId(ids.get("A")), index.vertexId(ids.get("D")), new PathSearch.Rules() {
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return true;
+            }
+
+            @Override
+            public boolean explores(int[] path, int length, long from, long to) {
+                return index.target(path[length - 1]) != vertexB;
+            }
+
+            @Override
+            public void found(int[] path, int length, long from, long to) {
+                paths.add(index.edge(path[0]).getLabel() + " " + index.edge(path[length - 1]).getLabel());
+            }
+        });
+
+        // The paths over B are skipped, the following successors of A are still visited.
+        assertEquals("[AC CD]", paths.toString());
+    }
+
+    @Test
+    public void testIsOnPath() {
+        TemporalGraphIndex index = build("AB", "AC", "BC", "CD", "BD");
+        int vertexB = index.vertexId(ids.get("B"));
+        PathSearch search = new PathSearch(index);
+        List<Boolean> throughB = new ArrayList<>();
+        search.run(index.vertexId(ids.get("A")), index.vertexId(ids.get("D")), new PathSearch.Rules() {
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return true;
+            }
+
+            @Override
+            public void found(int[] path, int length, long from, long to) {
+                throughB.add(search.isOnPath(vertexB));
+            }
+        });
+
+        assertEquals("[true, true, false]", throughB.toString());
+        assertFalse(search.isOnPath(vertexB));
+    }
+
+    private List<String> run(PathSearch search, TemporalGraphIndex index, String start, String end) {
+        List<String> paths = new ArrayList<>();
+        search.run(index.vertexId(ids.get(start)), index.vertexId(ids.get(end)), new PathSearch.Rules() {
+            @Override
+            public boolean follows(long from, long to, int lastEdge, int edge) {
+                return index.validFrom(edge) < to && index.validTo(edge) > from;
+            }
+
+            @Override
+            public void found(int[] path, int length, long from, long to) {
+                StringBuilder labels = new StringBuilder();
+                for (int i = 0; i < length; i++) {
+                    labels.append(i > 0 ? " " : "").append(index.edge(path[i]).getLabel());
+                }
+                paths.add(labels.toString());
+            }
+        });
+        return paths;
+    }
+
+    /**
+     * Builds a graph of edges, that are valid from 0 to 10.
+     * @param edges Source and target label of every edge, e.g. "AB".
+     * @return Index of the graph.
+     */
+    private TemporalGraphIndex build(String... edges) {
+        TemporalEdgeFactory factory = new TemporalEdgeFactory();
+        List<TemporalEdge> list = new ArrayList<>();
+        for (String edge : edges) {
+            GradoopId source = ids.computeIfAbsent(edge.substring(0, 1), label -> GradoopId.get());
+            GradoopId target = ids.computeIfAbsent(edge.substring(1, 2), label -> GradoopId.get());
+            TemporalEdge temporalEdge = factory.createEdge(edge, source, target);
+            temporalEdge.setValidFrom(0L);
+            temporalEdge.setValidTo(10L);
+            list.add(temporalEdge);
+        }
+        return new TemporalGraphIndex(list);
+    }
+}
@@ -0,0 +1,93 @@
+package basics.graph;
+
+import org.gradoop.common.model.impl.id.GradoopId;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdgeFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ReachabilityTest {
+    private final Map<String, GradoopId> ids = new HashMap<>();
+    private final List<TemporalEdge> edges = new ArrayList<>();
+
+    @Test
+    public void testReaching() {
+        add("AB", 0, 10);
+        add("BD", 20, 30);
+        add("AC", 0, 10);
+        add("CE", 0, 10);
+        add("DF", 0, 10);
+        TemporalGraphIndex index = new TemporalGraphIndex(edges);
+        boolean[] reaching = new Reachability(index).reaching(vertex(index, "D"));
+
+        // Static reachability ignores the times of the edges.
+        assertTrue(reaching[vertex(index, "A")]);
+        assertTrue(reaching[vertex(index, "B")]);
+        assertTrue(reaching[vertex(index, "D")]);
+        assertFalse(reaching[vertex(index, "C")]);
+        assertFalse(reaching[vertex(index, "E")]);
+        assertFalse(reaching[vertex(index, "F")]);
+    }
+
+    @Test
+    public void testLatestDepartures() {
+        add("AB", 0, 5);
+        add("BD", 10, 20);
+        add("BD", 3, 4);
+        add("AC", 6, 8);
+        add("CB", 8, 9);
+        add("FB", 15, 16);
+        add("AE", 0, 1);
+        add("ED", 0, 1);
+        TemporalGraphIndex index = new TemporalGraphIndex(edges);
+        long[] latest = new Reachability(index).latestDepartures(vertex(index, "D"));
+
+        assertEquals(Long.MAX_VALUE, latest[vertex(index, "D")]);
+        assertEquals(10L, latest[vertex(index, "B")]);
+        assertEquals(8L, latest[vertex(index, "C")]);
+        assertEquals(6L, latest[vertex(index, "A")]);
+        assertEquals(0L, latest[vertex(index, "E")]);
+        // F -> B ends after the last departure from B.
+        assertEquals(Long.MIN_VALUE, latest[vertex(index, "F")]);
+    }
+
+    @Test
+    public void testLatestArrivals() {
+        add("AB", 0, 5);
+        add("BD", 10, 20);
+        add("AC", 0, 5);
+        add("CD", 0, 30);
+        add("CB", 0, 5);
+        add("DE", 0, 50);
+        add("EC", 0, 50);
+        add("FA", 0, 5);
+        TemporalGraphIndex index = new TemporalGraphIndex(edges);
+        long[] latest = new Reachability(index).latestArrivals(vertex(index, "D"));
+
+        assertEquals(20L, latest[vertex(index, "B")]);
+        assertEquals(30L, latest[vertex(index, "C")]);
+        assertEquals(30L, latest[vertex(index, "A")]);
+        assertEquals(30L, latest[vertex(index, "F")]);
+        assertEquals(30L, latest[vertex(index, "E")]);
+        assertEquals(Long.MIN_VALUE, latest[vertex(index, "D")]);
+    }
+
+    private void add(String label, long from, long to) {
+        GradoopId source = ids.computeIfAbsent(label.substring(0, 1), l -> GradoopId.get());
+        GradoopId target = ids.computeIfAbsent(label.substring(1, 2), l -> GradoopId.get());
+        TemporalEdge edge = new TemporalEdgeFactory().createEdge(label, source, target);
+        edge.setValidFrom(from);
+        edge.setValidTo(to);
+        edges.add(edge);
+    }
+
+    private int vertex(TemporalGraphIndex index, String label) {
+        return index.vertexId(ids.get(label));
+    }
+}
@@ -0,0 +1,60 @@
+package basics.graph;
+
+import importing.TestDataImporter;
+import org.gradoop.common.model.impl.id.GradoopId;
+import org.gradoop.temporal.model.impl.pojo.TemporalVertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TemporalGraphIndexTest {
+    private TestDataImporter importer;
+    private TemporalGraphIndex index;
+
+    @Before
+    public void setUp() {
+        importer = new TestDataImporter();
+        index = TemporalGraphIndex.of(importer);
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals(importer.getVertices().size(), index.vertexCount());
+        assertEquals(importer.getEdges().size(), index.edgeCount());
+    }
+
+    @Test
+    public void testOutEdges() {
+        int vertex = index.vertexId(getVertex("E").getId());
+        List<String> targets = new ArrayList<>();
+        List<Long> validFrom = new ArrayList<>();
+        for (int e = index.outStart(vertex); e < index.outEnd(vertex); e++) {
+            assertEquals(vertex, index.source(e));
+            assertEquals(index.vertex(index.target(e)), index.edge(e).getTargetId());
+            targets.add(getLabel(index.vertex(index.target(e))));
+            validFrom.add(index.validFrom(e));
+        }
+
+        // The edges keep the order of the edge list.
+        assertEquals("[F, A, E, H, G]", targets.toString());
+        assertEquals("[7, 13, 3, 3, 13]", validFrom.toString());
+        assertEquals(5, index.outEdges(vertex).size());
+    }
+
+    @Test
+    public void testUnknownVertex() {
+        assertEquals(-1, index.vertexId(GradoopId.get()));
+    }
+
+    private TemporalVertex getVertex(String label) {
+        return importer.getVertices().stream().filter(v -> v.getLabel().equals(label)).findFirst().orElse(null);
+    }
+
+    private String getLabel(GradoopId id) {
+        return importer.getVertices().stream().filter(v -> v.getId().equals(id)).findFirst().get().getLabel();
+    }
+}
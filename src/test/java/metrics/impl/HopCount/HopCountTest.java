@@ -1,11 +1,20 @@
 package metrics.impl.HopCount;
 
+import basics.graph.EdgeStore;
+import importing.TestCSVLayout;
 import importing.TestDataImporter;
+import metrics.api.Engine;
 import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdgeFactory;
 import org.gradoop.temporal.model.impl.pojo.TemporalVertex;
+import org.gradoop.temporal.model.impl.pojo.TemporalVertexFactory;
 import org.junit.Before;
 import org.junit.Test;
+
+import java.io.File;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.TreeMap;
 
 import static org.junit.Assert.*;
@@ -48,6 +57,146 @@ public class HopCountTest {
         assertTrue("Y at X=27 should exist and be null.", data.containsKey(27L) && data.get(27L) == null);
     }
 
+    @Test
+    public void testDtoHLabels() {
+        HopCount hopCount = new HopCount(getVertex("D").getId(), getVertex("H").getId());
+        hopCount.setEngine(Engine.LABELS);
+        hopCount.calculate(edges);
+        TreeMap<Long, Integer> data = hopCount.getData().getData();
+
+        int expectedSize = 3;
+        assertEquals("Size is " + data.size() + " but should be " + expectedSize + ".", expectedSize, data.size());
+
+        assertEquals("Y at X=13 should be 2.", new Integer(2), data.get(13L));
+        assertEquals("Y at X=18 should be 3.", new Integer(3), data.get(18L));
+        assertTrue("Y at X=36 should exist and be null.", data.containsKey(36L) && data.get(36L) == null);
+    }
+
+    @Test
+    public void testAtoBSweep() {
+        HopCount hopCount = new HopCount(getVertex("A").getId(), getVertex("B").getId());
+        hopCount.setEngine(Engine.SWEEP);
+        hopCount.calculate(edges);
+        TreeMap<Long, Integer> data = hopCount.getData().getData();
+
+        int expectedSize = 2;
+        assertEquals("Size is " + data.size() + " but should be " + expectedSize + ".", expectedSize, data.size());
+
+        assertEquals("Y at X=8 should be 2.", new Integer(2), data.get(8L));
+        assertTrue("Y at X=27 should exist and be null.", data.containsKey(27L) && data.get(27L) == null);
+    }
+
+    @Test
+    public void testEnginesAllPairs() {
+        for (TemporalVertex start : vertices) {
+            for (TemporalVertex end : vertices) {
+                if (start == end) {
+                    continue;
+                }
+                HopCount paths = new HopCount(start.getId(), end.getId());
+                paths.calculate(edges);
+                HopCount labels = new HopCount(start.getId(), end.getId());
+                labels.setEngine(Engine.LABELS);
+                labels.calculate(edges);
+                HopCount sweep = new HopCount(start.getId(), end.getId());
+                sweep.setEngine(Engine.SWEEP);
+                sweep.calculate(edges);
+                assertEquals(labels.getData().getData(), sweep.getData().getData());
+                HopCount dynamic = new HopCount(start.getId(), end.getId());
+                dynamic.setEngine(Engine.DYNAMIC);
+                dynamic.calculate(edges);
+                assertEquals(labels.getData().getData(), dynamic.getData().getData());
+                HopCount pareto = new HopCount(start.getId(), end.getId());
+                pareto.setEngine(Engine.PARETO);
+                pareto.calculate(edges);
+                assertEquals(labels.getData().getData(), pareto.getData().getData());
+                for (Long x : paths.getData().getData().keySet()) {
+                    Integer expected = paths.getData().at(x);
+                    Integer actual = labels.getData().at(x);
+                    // The lowest hop count can't be higher than the hop count of any found path.
+                    assertTrue(start.getLabel() + " to " + end.getLabel() + " at X=" + x,
+                            expected == null || (actual != null && actual <= expected));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEnginesRandomGraphs() {
+        TemporalVertexFactory vertexFactory = new TemporalVertexFactory();
+        TemporalEdgeFactory edgeFactory = new TemporalEdgeFactory();
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            List<TemporalVertex> randomVertices = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                randomVertices.add(vertexFactory.createVertex("V" + i));
+            }
+            List<TemporalEdge> randomEdges = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                TemporalEdge edge = edgeFactory.createEdge(randomVertices.get(random.nextInt(8)).getId(),
+                        randomVertices.get(random.nextInt(8)).getId());
+                edge.setValidFrom((long)random.nextInt(40));
+                edge.setValidTo(edge.getValidFrom() + 1 + random.nextInt(15));
+                randomEdges.add(edge);
+            }
+            TreeMap<Long, Integer> expected = null;
+            for (Engine engine : new Engine[] {Engine.LABELS, Engine.SWEEP, Engine.DYNAMIC, Engine.PARETO}) {
+                HopCount hopCount = new HopCount(randomVertices.get(0).getId(), randomVertices.get(1).getId());
+                hopCount.setEngine(engine);
+                hopCount.calculate(randomEdges);
+                if (expected == null) {
+                    expected = hopCount.getData().getData();
+                }
+                assertEquals("Seed " + seed + ", " + engine, expected, hopCount.getData().getData());
+            }
+        }
+    }
+
+    @Test
+    public void testParallelAllPairs() {
+        for (TemporalVertex start : vertices) {
+            for (TemporalVertex end : vertices) {
+                if (start == end) {
+                    continue;
+                }
+                HopCount sequential = new HopCount(start.getId(), end.getId());
+                sequential.calculate(edges);
+                HopCount parallel = new HopCount(start.getId(), end.getId());
+                parallel.setParallelism(4);
+                parallel.calculate(edges);
+                assertEquals(start.getLabel() + " to " + end.getLabel(),
+                        sequential.getData().getData(), parallel.getData().getData());
+            }
+        }
+    }
+
+    /**
+     * Without bounds the parallel enumeration of this pair takes minutes, the sequential one is pruned to milliseconds.
+     */
+    @Test(timeout = 30000)
+    public void testParallelPruning() {
+        EdgeStore store = new TestCSVLayout().loadEdgeStore(new File("testgraphs/50nodes5000edges.csv"));
+        HopCount sequential = new HopCount(store.vertex(0), store.vertex(5));
+        sequential.calculate(store);
+        HopCount parallel = new HopCount(store.vertex(0), store.vertex(5));
+        parallel.setParallelism(4);
+        parallel.calculate(store);
+
+        assertEquals(sequential.getData().getData(), parallel.getData().getData());
+    }
+
+    @Test
+    public void testParallelStreaming() {
+        HopCount sequential = new HopCount(getVertex("D").getId(), getVertex("H").getId());
+        HopCount parallel = new HopCount(getVertex("D").getId(), getVertex("H").getId());
+        parallel.setParallelism(4);
+        for (TemporalEdge edge : edges) {
+            sequential.calculate(edge);
+            parallel.calculate(edge);
+            assertEquals(sequential.getData().getData(), parallel.getData().getData());
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInvalidSimilar() {
         HopCount hopCount = new HopCount(getVertex("A").getId(), getVertex("A").getId());
@@ -1,6 +1,8 @@
 package metrics.impl.TemporalBetweennessCentrality;
 
+import basics.diagram.Diagram;
 import importing.TestDataImporter;
+import metrics.api.Engine;
 import org.gradoop.common.model.impl.id.GradoopId;
 import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
 import org.gradoop.temporal.model.impl.pojo.TemporalVertex;
@@ -8,6 +10,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.TreeMap;
 
 import static org.junit.Assert.*;
@@ -79,6 +82,74 @@ public class TemporalBetweennessCentralityTest {
         assertTrue("Y at X=" + ceilEdge.getValidTo() + " should exist and be null.", data.containsKey(ceilEdge.getValidTo()) && data.get(ceilEdge.getValidTo()) == null);
     }
 
+    @Test
+    public void testAllSweep() {
+        TemporalBetweennessCentrality temporalBetweennessCentrality = new TemporalBetweennessCentrality(vertices, getVertex("A").getId());
+        temporalBetweennessCentrality.setEngine(Engine.SWEEP);
+        temporalBetweennessCentrality.calculate(edges);
+        Map<GradoopId, Diagram<Long, Double>> all = temporalBetweennessCentrality.getAllData();
+
+        assertEquals("Size is " + all.size() + " but should be " + vertices.size() + ".", vertices.size(), all.size());
+        assertEquals(temporalBetweennessCentrality.getData().getData(), all.get(getVertex("A").getId()).getData());
+
+        // Between 5 and 6 the only shortest path through A is J -> A -> G.
+        TreeMap<Long, Double> data = all.get(getVertex("A").getId()).getData();
+        double expected = 1.0 / (9 * 8);
+        assertTrue("Y at X=2 should be 0.", Math.abs(data.get(2L)) < THRESHOLD);
+        assertTrue("Y at X=5 should be " + expected + ".", Math.abs(expected - data.get(5L)) < THRESHOLD);
+        assertTrue("Y at X=47 should exist and be null.", data.containsKey(47L) && data.get(47L) == null);
+
+        TreeMap<Long, Double> dataC = all.get(getVertex("C").getId()).getData();
+        assertEquals("Size is " + dataC.size() + " but should be " + 2 + ".", 2, dataC.size());
+        assertTrue("Y at X=2 should be 0.", Math.abs(dataC.get(2L)) < THRESHOLD);
+    }
+
+    @Test
+    public void testAllPaths() {
+        TemporalBetweennessCentrality temporalBetweennessCentrality = new TemporalBetweennessCentrality(vertices, getVertex("C").getId());
+        temporalBetweennessCentrality.calculate(edges);
+        assertNull(temporalBetweennessCentrality.getAllData());
+    }
+
+    @Test
+    public void testParallel() {
+        for (TemporalVertex vertex : vertices) {
+            TemporalBetweennessCentrality sequential = new TemporalBetweennessCentrality(vertices, vertex.getId());
+            sequential.calculate(edges);
+            TemporalBetweennessCentrality parallel = new TemporalBetweennessCentrality(vertices, vertex.getId());
+            parallel.setParallelism(4);
+            parallel.calculate(edges);
+
+            assertEquals(vertex.getLabel(), sequential.getData().getData(), parallel.getData().getData());
+        }
+    }
+
+    @Test
+    public void testParallelRepeated() {
+        TemporalBetweennessCentrality sequential = new TemporalBetweennessCentrality(vertices, getVertex("C").getId());
+        sequential.calculate(edges);
+        TemporalBetweennessCentrality parallel = new TemporalBetweennessCentrality(vertices, getVertex("C").getId());
+        parallel.setParallelism(4);
+        parallel.calculate(edges);
+        parallel.calculate(edges);
+        assertEquals(sequential.getData().getData(), parallel.getData().getData());
+
+        // Changing the parallelism replaces the threads of the instance.
+        parallel.setParallelism(2);
+        parallel.calculate(edges);
+        assertEquals(sequential.getData().getData(), parallel.getData().getData());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new TemporalBetweennessCentrality(vertices, getVertex("A").getId()).setParallelism(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedEngine() {
+        new TemporalBetweennessCentrality(vertices, getVertex("A").getId()).setEngine(Engine.LABELS);
+    }
+
     private TemporalVertex getVertex(String label) {
         return vertices.stream().filter(v -> v.getLabel().equals(label)).findFirst().orElse(null);
     }
@@ -1,6 +1,7 @@
 package metrics.impl.TemporalConnectedness;
 
 import importing.TestDataImporter;
+import metrics.api.Engine;
 import metrics.impl.HopCount.HopCount;
 import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
 import org.gradoop.temporal.model.impl.pojo.TemporalVertex;
@@ -8,6 +9,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.TreeMap;
 
 import static org.junit.Assert.*;
@@ -49,6 +51,71 @@ public class TemporalConnectednessTest {
         assertEquals("Y at X=47 should be 0.", new Short((short)0), data.get(47L));
     }
 
+    @Test
+    public void testEtoJScan() {
+        TemporalConnectedness temporalConnectedness = new TemporalConnectedness(getVertex("E").getId(), getVertex("J").getId());
+        temporalConnectedness.setEngine(Engine.SCAN);
+        temporalConnectedness.calculate(edges);
+        TreeMap<Long, Short> data = temporalConnectedness.getData().getData();
+
+        assertEquals("Size is " + data.size() + " but should be " + 2 + ".", 2, data.size());
+
+        assertEquals("Y at X=3 should be 1.", new Short((short)1), data.get(3L));
+        assertEquals("Y at X=47 should be 0.", new Short((short)0), data.get(47L));
+    }
+
+    @Test
+    public void testEnginesAllPairs() {
+        for (TemporalVertex start : vertices) {
+            for (TemporalVertex end : vertices) {
+                if (start == end) {
+                    continue;
+                }
+                TemporalConnectedness paths = new TemporalConnectedness(start.getId(), end.getId());
+                paths.calculate(edges);
+                TemporalConnectedness scan = new TemporalConnectedness(start.getId(), end.getId());
+                scan.setEngine(Engine.SCAN);
+                scan.calculate(edges);
+
+                // Engine.PATHS can skip paths, so every point in time, that it connects, has to be connected by the scan.
+                for (Map.Entry<Long, Short> entry : paths.getData().getData().entrySet()) {
+                    if (entry.getValue() == 1) {
+                        assertEquals(start.getLabel() + " to " + end.getLabel() + " at X=" + entry.getKey(),
+                                new Short((short)1), scan.getData().at(entry.getKey()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelAllPairs() {
+        for (TemporalVertex start : vertices) {
+            for (TemporalVertex end : vertices) {
+                if (start == end) {
+                    continue;
+                }
+                TemporalConnectedness sequential = new TemporalConnectedness(start.getId(), end.getId());
+                sequential.calculate(edges);
+                TemporalConnectedness parallel = new TemporalConnectedness(start.getId(), end.getId());
+                parallel.setParallelism(4);
+                parallel.calculate(edges);
+                assertEquals(start.getLabel() + " to " + end.getLabel(),
+                        sequential.getData().getData(), parallel.getData().getData());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new TemporalConnectedness(getVertex("E").getId(), getVertex("J").getId()).setParallelism(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedEngine() {
+        new TemporalConnectedness(getVertex("E").getId(), getVertex("J").getId()).setEngine(Engine.SWEEP);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInvalidSimilar() {
         new TemporalConnectedness(getVertex("G").getId(), getVertex("G").getId());
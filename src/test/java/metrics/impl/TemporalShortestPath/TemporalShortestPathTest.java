@@ -2,13 +2,18 @@ package metrics.impl.TemporalShortestPath;
 
 import basics.ComparableObject;
 import importing.TestDataImporter;
+import metrics.api.Engine;
 import org.gradoop.temporal.model.impl.pojo.TemporalEdge;
+import org.gradoop.temporal.model.impl.pojo.TemporalEdgeFactory;
 import org.gradoop.temporal.model.impl.pojo.TemporalVertex;
+import org.gradoop.temporal.model.impl.pojo.TemporalVertexFactory;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
@@ -62,6 +67,98 @@ public class TemporalShortestPathTest {
         assertTrue("Y at X=36 should exist and be null.", data.containsKey(36L) && data.get(36L) == null);
     }
 
+    @Test
+    public void testParallelAllPairs() {
+        for (TemporalVertex start : vertices) {
+            for (TemporalVertex end : vertices) {
+                if (start == end) {
+                    continue;
+                }
+                TemporalShortestPath sequential = new TemporalShortestPath(start.getId(), end.getId());
+                sequential.calculate(edges);
+                TemporalShortestPath parallel = new TemporalShortestPath(start.getId(), end.getId());
+                parallel.setParallelism(4);
+                parallel.calculate(edges);
+
+                TreeMap<Long, ComparableObject<Long, List<TemporalEdge>>> expected = sequential.getData().getData();
+                TreeMap<Long, ComparableObject<Long, List<TemporalEdge>>> actual = parallel.getData().getData();
+                assertEquals(start.getLabel() + " to " + end.getLabel(), expected.keySet(), actual.keySet());
+                for (Long x : expected.keySet()) {
+                    // Equally short paths have to be chosen the same way.
+                    assertEquals(expected.get(x) == null ? null : expected.get(x).getObject(),
+                            actual.get(x) == null ? null : actual.get(x).getObject());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParetoAllPairs() {
+        for (TemporalVertex start : vertices) {
+            for (TemporalVertex end : vertices) {
+                if (start == end) {
+                    continue;
+                }
+                TemporalShortestPath paths = new TemporalShortestPath(start.getId(), end.getId());
+                paths.calculate(edges);
+                TemporalShortestPath pareto = new TemporalShortestPath(start.getId(), end.getId());
+                pareto.setEngine(Engine.PARETO);
+                pareto.calculate(edges);
+
+                TreeMap<Long, ComparableObject<Long, List<TemporalEdge>>> expected = paths.getData().getData();
+                TreeMap<Long, ComparableObject<Long, List<TemporalEdge>>> actual = pareto.getData().getData();
+                assertEquals(start.getLabel() + " to " + end.getLabel(), expected.keySet(), actual.keySet());
+                for (Long x : expected.keySet()) {
+                    assertEquals(expected.get(x) == null ? null : expected.get(x).getNumber(),
+                            actual.get(x) == null ? null : actual.get(x).getNumber());
+                }
+            }
+        }
+    }
+
+    /**
+     * S B V and S C V reach V with the same time span, but S C V can't continue over C, so the shortest path S B V C T
+     * before X=5 is only found, if S B V isn't dropped.
+     */
+    @Test
+    public void testParetoDifferentVertices() {
+        TemporalVertexFactory vertexFactory = new TemporalVertexFactory();
+        TemporalEdgeFactory edgeFactory = new TemporalEdgeFactory();
+        Map<String, TemporalVertex> graphVertices = new HashMap<>();
+        for (String label : new String[] {"S", "B", "C", "V", "T"}) {
+            graphVertices.put(label, vertexFactory.createVertex(label));
+        }
+        List<TemporalEdge> graphEdges = new ArrayList<>();
+        for (String edge : new String[] {"SC 0 10", "SB 0 5", "CV 0 5", "CT 0 10", "BV 0 5", "VC 0 5"}) {
+            String[] parts = edge.split(" ");
+            TemporalEdge temporalEdge = edgeFactory.createEdge(parts[0],
+                    graphVertices.get(parts[0].substring(0, 1)).getId(), graphVertices.get(parts[0].substring(1)).getId());
+            temporalEdge.setValidFrom(Long.parseLong(parts[1]));
+            temporalEdge.setValidTo(Long.parseLong(parts[2]));
+            graphEdges.add(temporalEdge);
+        }
+        TemporalShortestPath paths = new TemporalShortestPath(graphVertices.get("S").getId(), graphVertices.get("T").getId());
+        paths.calculate(graphEdges);
+        TemporalShortestPath pareto = new TemporalShortestPath(graphVertices.get("S").getId(), graphVertices.get("T").getId());
+        pareto.setEngine(Engine.PARETO);
+        pareto.calculate(graphEdges);
+
+        assertEquals(paths.getData().getData().keySet(), pareto.getData().getData().keySet());
+        assertEquals("Y at X=0 should be 5.", new Long(5), pareto.getData().at(0L).getNumber());
+        assertEquals("Y at X=5 should be 10.", new Long(10), pareto.getData().at(5L).getNumber());
+        assertEquals(paths.getData().at(0L).getObject(), pareto.getData().at(0L).getObject());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedSweep() {
+        new TemporalShortestPath(getVertex("E").getId(), getVertex("J").getId()).setEngine(Engine.SWEEP);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedEngine() {
+        new TemporalShortestPath(getVertex("E").getId(), getVertex("J").getId()).setEngine(Engine.LABELS);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInvalidSimilar() {
         new TemporalShortestPath(getVertex("E").getId(), getVertex("E").getId());